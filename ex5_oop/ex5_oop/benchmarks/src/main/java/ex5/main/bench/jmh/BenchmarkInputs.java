@@ -0,0 +1,150 @@
+package ex5.main.bench.jmh;
+
+import ex5.main.InputChecker;
+import ex5.main.bench.CorpusShape;
+import ex5.main.bench.Mutation;
+import ex5.main.bench.SyntheticProgram;
+import ex5.main.file_manager.LineKind;
+import ex5.main.file_manager.LineParser;
+import ex5.main.file_manager.LineRecord;
+import ex5.main.file_manager.RowValidnessClass;
+import ex5.main.file_manager.SymbolInterner;
+import ex5.main.file_manager.SyntaxException;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The inputs of the benchmarks, named by the {@code input} parameter of every benchmark:
+ * - {@value #SUPPLIED}: every file of {@code supplied_material/tests}, valid and invalid alike.
+ * - {@value #SYNTHETIC_PREFIX}N: a single valid generated file of N methods, see {@link #synthetic}.
+ * The tests directory is looked up from the working directory and from its parent, so the benchmarks
+ * run both from the project and from the benchmarks module; the {@value #TESTS_PROPERTY} system property
+ * points to it explicitly.
+ */
+public class BenchmarkInputs {
+    /**
+     * The input holding the supplied test files.
+     */
+    public static final String SUPPLIED = "supplied";
+    /**
+     * The prefix of a synthetic input, followed by its number of methods.
+     */
+    public static final String SYNTHETIC_PREFIX = "synthetic-";
+    /**
+     * The system property overriding the location of the supplied tests.
+     */
+    public static final String TESTS_PROPERTY = "sjavac.tests";
+    private static final String[] TESTS_DIRECTORIES = {"supplied_material/tests", "../supplied_material/tests"};
+    private static final String ERROR_NO_TESTS = "supplied_material/tests not found, set -D" + TESTS_PROPERTY;
+    private static final long SYNTHETIC_SEED = 0;
+    private static final int SYNTHETIC_PARAMETERS = 3;
+    private static final int SYNTHETIC_STATEMENTS = 8;
+    private static final int SYNTHETIC_DEPTH = 2;
+    private static final double SYNTHETIC_CALL_DENSITY = 0.1;
+    private static final int SYNTHETIC_LITERAL_SIZE = 8;
+    private static final double SYNTHETIC_COMMENT_RATIO = 0.05;
+
+    /**
+     * Loads the files of an input.
+     *
+     * @param input The name of the input.
+     * @return The lines of every file of the input.
+     * @throws IOException If the supplied tests cannot be read.
+     */
+    public static List<List<String>> load(String input) throws IOException {
+        if (input.startsWith(SYNTHETIC_PREFIX)) {
+            int methods = Integer.parseInt(input.substring(SYNTHETIC_PREFIX.length()));
+            return List.of(synthetic(methods).lines().collect(Collectors.toList()));
+        }
+        List<List<String>> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(testsDirectory())) {
+            for (Path path : paths.filter(path -> InputChecker.isSjavaFile(path.toString())).sorted()
+                    .collect(Collectors.toList())) {
+                files.add(Files.readAllLines(path, StandardCharsets.ISO_8859_1));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Generates a valid s-Java file of a given number of methods, and as many global variables, with a
+     * fixed seed so that every run measures the same file (see {@link SyntheticProgram}).
+     *
+     * @param methods The number of methods.
+     * @return The source of the file.
+     */
+    public static String synthetic(int methods) {
+        CorpusShape shape = new CorpusShape(methods, methods, SYNTHETIC_PARAMETERS, SYNTHETIC_STATEMENTS,
+                SYNTHETIC_DEPTH, SYNTHETIC_CALL_DENSITY, SYNTHETIC_LITERAL_SIZE, SYNTHETIC_COMMENT_RATIO);
+        StringWriter source = new StringWriter();
+        try {
+            new SyntheticProgram(shape, SYNTHETIC_SEED, Mutation.NONE).write(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return source.toString();
+    }
+
+    /**
+     * Keeps the code lines of a file, skipping its blank and comment lines.
+     *
+     * @param lines The lines of the file.
+     * @return The code lines.
+     */
+    public static List<String> codeLines(List<String> lines) {
+        List<String> codeLines = new ArrayList<>();
+        for (String line : lines) {
+            if (!RowValidnessClass.isEmptyOrComment(line)) {
+                codeLines.add(line);
+            }
+        }
+        return codeLines;
+    }
+
+    /**
+     * Checks and parses the lines of a file into the records the validation phases run over, as
+     * {@link ex5.main.file_manager.FileProcessor} does.
+     *
+     * @param lines The lines of the file.
+     * @return The records of the code lines.
+     * @throws SyntaxException If one of the lines has an invalid format.
+     */
+    public static List<LineRecord> parse(List<String> lines) throws SyntaxException {
+        SymbolInterner symbols = new SymbolInterner();
+        List<LineRecord> records = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : lines) {
+            lineNumber++;
+            if (RowValidnessClass.isEmptyOrComment(line)) {
+                continue;
+            }
+            LineKind kind = RowValidnessClass.checkLine(line, records.size(), lineNumber);
+            records.add(LineParser.parse(line, kind, records.size(), lineNumber, symbols));
+        }
+        return records;
+    }
+
+    private static Path testsDirectory() throws IOException {
+        String property = System.getProperty(TESTS_PROPERTY);
+        if (property != null) {
+            return Paths.get(property);
+        }
+        for (String directory : TESTS_DIRECTORIES) {
+            Path path = Paths.get(directory);
+            if (Files.isDirectory(path)) {
+                return path;
+            }
+        }
+        throw new IOException(ERROR_NO_TESTS);
+    }
+}
@@ -0,0 +1,76 @@
+package ex5.main.bench.jmh;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class: BenchmarkRunner
+ * The entry point of the benchmarks jar. Runs the benchmarks in throughput mode, reporting ops/s, with
+ * the GC profiler reporting the allocation rate and the bytes allocated per operation ({@code -prof gc}),
+ * and writes the results to {@value #RESULT_FILE} as JSON, so that runs can be compared to track
+ * regressions.
+ * Any JMH command-line option may be given, and overrides these defaults, except for the mode and the
+ * profiler; for example a regular expression selects the benchmarks to run, and
+ * {@code -p input=synthetic-1000} sets the input. As with the JMH launcher, {@code -h} prints the options
+ * and {@code -l} (or {@code -lp}, with their parameters) lists the benchmarks, without running any.
+ */
+public class BenchmarkRunner {
+    /**
+     * The file the results are written to.
+     */
+    public static final String RESULT_FILE = "jmh-result.json";
+    private static final int FORKS = 1;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int ITERATION_SECONDS = 2;
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args JMH command-line options.
+     * @throws CommandLineOptionException If the options are invalid.
+     * @throws RunnerException If a benchmark fails.
+     * @throws IOException If the help cannot be printed.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .forks(commandLine.getForkCount().orElse(FORKS))
+                .warmupIterations(commandLine.getWarmupIterations().orElse(WARMUP_ITERATIONS))
+                .warmupTime(commandLine.getWarmupTime().orElse(TimeValue.seconds(ITERATION_SECONDS)))
+                .measurementIterations(commandLine.getMeasurementIterations().orElse(MEASUREMENT_ITERATIONS))
+                .measurementTime(commandLine.getMeasurementTime().orElse(TimeValue.seconds(ITERATION_SECONDS)))
+                .mode(Mode.Throughput)
+                .timeUnit(commandLine.getTimeUnit().orElse(TimeUnit.SECONDS))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLine.getResult().orElse(RESULT_FILE))
+                .build();
+        Runner runner = new Runner(options);
+        if (commandLine.shouldList()) {
+            runner.list();
+            return;
+        }
+        if (commandLine.shouldListWithParams()) {
+            runner.listWithParams(commandLine);
+            return;
+        }
+        runner.run();
+    }
+}
@@ -0,0 +1,76 @@
+package ex5.main.bench.jmh;
+
+import ex5.main.SjavaValidator;
+import ex5.main.file_manager.FileProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the end-to-end throughput of a validation: the line checks and all the phases of
+ * {@link FileProcessor}, and the whole of {@link SjavaValidator#validate(CharSequence)}, which also splits
+ * the source into lines. An operation validates every file of the input once.
+ */
+@State(Scope.Benchmark)
+public class FileProcessorBenchmark {
+    /**
+     * The input, see {@link BenchmarkInputs}.
+     */
+    @Param({BenchmarkInputs.SUPPLIED, "synthetic-100", "synthetic-10000"})
+    public String input;
+
+    private final List<List<String>> files = new ArrayList<>();
+    private final List<String> sources = new ArrayList<>();
+    private final SjavaValidator validator = new SjavaValidator();
+
+    /**
+     * Loads the files of the input.
+     *
+     * @throws IOException If the input cannot be read.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        for (List<String> file : BenchmarkInputs.load(input)) {
+            files.add(file);
+            sources.add(String.join("\n", file));
+        }
+    }
+
+    /**
+     * Validates every file through {@link FileProcessor}, as {@link SjavaValidator} does.
+     *
+     * @param blackhole Consumes the errors.
+     */
+    @Benchmark
+    public void fileProcessor(Blackhole blackhole) {
+        for (List<String> file : files) {
+            try {
+                FileProcessor fileProcessor = new FileProcessor(file);
+                fileProcessor.checkGlobalVariables();
+                fileProcessor.checkFunctionNames();
+                fileProcessor.checkFunctionsBody();
+            } catch (RuntimeException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    /**
+     * Validates the source of every file with {@link SjavaValidator#validate(CharSequence)}.
+     *
+     * @param blackhole Consumes the results.
+     */
+    @Benchmark
+    public void sjavaValidator(Blackhole blackhole) {
+        for (String source : sources) {
+            blackhole.consume(validator.validate(source));
+        }
+    }
+}
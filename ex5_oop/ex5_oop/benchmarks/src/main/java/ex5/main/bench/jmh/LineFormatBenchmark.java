@@ -0,0 +1,146 @@
+package ex5.main.bench.jmh;
+
+import ex5.main.file_manager.RowValidnessClass;
+import ex5.main.file_manager.SJavaValidator;
+import ex5.main.file_manager.SyntaxException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the recognition of single lines: every {@code SJavaValidator.match*Format} method and
+ * {@link RowValidnessClass#checkLineFormat}. An operation matches all the code lines of the input once,
+ * so a format is measured on the lines it accepts and on the lines it rejects alike.
+ */
+@State(Scope.Benchmark)
+public class LineFormatBenchmark {
+    /**
+     * The input, see {@link BenchmarkInputs}.
+     */
+    @Param({BenchmarkInputs.SUPPLIED, "synthetic-100"})
+    public String input;
+
+    private String[] lines;
+
+    /**
+     * Loads the code lines of the input.
+     *
+     * @throws IOException If the input cannot be read.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        List<String> codeLines = new ArrayList<>();
+        for (List<String> file : BenchmarkInputs.load(input)) {
+            codeLines.addAll(BenchmarkInputs.codeLines(file));
+        }
+        lines = codeLines.toArray(new String[0]);
+    }
+
+    /**
+     * Matches every line with {@link SJavaValidator#matchDeclarationFormat}.
+     *
+     * @param blackhole Consumes the results.
+     */
+    @Benchmark
+    public void matchDeclarationFormat(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(SJavaValidator.matchDeclarationFormat(line));
+        }
+    }
+
+    /**
+     * Matches every line with {@link SJavaValidator#matchAssignmentFormat}.
+     *
+     * @param blackhole Consumes the results.
+     */
+    @Benchmark
+    public void matchAssignmentFormat(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(SJavaValidator.matchAssignmentFormat(line));
+        }
+    }
+
+    /**
+     * Matches every line with {@link SJavaValidator#matchIfWhileFormat}.
+     *
+     * @param blackhole Consumes the results.
+     */
+    @Benchmark
+    public void matchIfWhileFormat(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(SJavaValidator.matchIfWhileFormat(line));
+        }
+    }
+
+    /**
+     * Matches every line with {@link SJavaValidator#matchReturnFormat}.
+     *
+     * @param blackhole Consumes the results.
+     */
+    @Benchmark
+    public void matchReturnFormat(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(SJavaValidator.matchReturnFormat(line));
+        }
+    }
+
+    /**
+     * Matches every line with {@link SJavaValidator#matchEndOfScopeFormat}.
+     *
+     * @param blackhole Consumes the results.
+     */
+    @Benchmark
+    public void matchEndOfScopeFormat(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(SJavaValidator.matchEndOfScopeFormat(line));
+        }
+    }
+
+    /**
+     * Matches every line with {@link SJavaValidator#matchMethodCallFormat}.
+     *
+     * @param blackhole Consumes the results.
+     */
+    @Benchmark
+    public void matchMethodCallFormat(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(SJavaValidator.matchMethodCallFormat(line));
+        }
+    }
+
+    /**
+     * Matches every line with {@link SJavaValidator#matchMethodDeclarationFormat}.
+     *
+     * @param blackhole Consumes the results.
+     */
+    @Benchmark
+    public void matchMethodDeclarationFormat(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(SJavaValidator.matchMethodDeclarationFormat(line));
+        }
+    }
+
+    /**
+     * Recognizes the format of every line with {@link RowValidnessClass#checkLineFormat}.
+     *
+     * @param blackhole Consumes the results, or the errors of the lines that match no format.
+     */
+    @Benchmark
+    public void checkLineFormat(Blackhole blackhole) {
+        for (int index = 0; index < lines.length; index++) {
+            try {
+                // the line number only labels a slow line event, which no benchmark records
+                blackhole.consume(RowValidnessClass.checkLineFormat(lines[index], index, index + 1));
+            } catch (SyntaxException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ex5.main.bench.jmh;
+
+import ex5.main.file_manager.LineRecord;
+import ex5.main.file_manager.SymbolTable;
+import ex5.main.file_manager.SyntaxException;
+import ex5.main.file_manager.functions.FunctionBodyValidator;
+import ex5.main.file_manager.functions.FunctionNames;
+import ex5.main.file_manager.functions.MethodTable;
+import ex5.main.file_manager.global_variables.GlobalVariables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures each validation phase on its own, over the records the line checks parsed once in the setup:
+ * the global variables, the method names, and the method bodies. A phase runs over every file of the
+ * input that reaches it in a real validation, so the files with invalid lines are left out of all the
+ * phases, and the files with invalid globals or method declarations are left out of the method bodies.
+ * An operation runs the phase once over all those files.
+ */
+@State(Scope.Benchmark)
+public class PhaseBenchmark {
+    /**
+     * The input, see {@link BenchmarkInputs}.
+     */
+    @Param({BenchmarkInputs.SUPPLIED, "synthetic-100", "synthetic-10000"})
+    public String input;
+
+    private final List<List<LineRecord>> parsedFiles = new ArrayList<>();
+    private final List<List<LineRecord>> bodyFiles = new ArrayList<>();
+    private final List<SymbolTable> bodyGlobals = new ArrayList<>();
+    private final List<MethodTable> bodyMethods = new ArrayList<>();
+
+    /**
+     * Parses the files of the input, and runs the first phases once to find the files each phase
+     * runs over.
+     *
+     * @throws IOException If the input cannot be read.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        for (List<String> file : BenchmarkInputs.load(input)) {
+            List<LineRecord> records;
+            try {
+                records = BenchmarkInputs.parse(file);
+            } catch (SyntaxException e) {
+                continue;
+            }
+            parsedFiles.add(records);
+            try {
+                GlobalVariables globalVariables = new GlobalVariables(records);
+                globalVariables.validAndCreateGlobalMap();
+                FunctionNames functionNames = new FunctionNames(records);
+                functionNames.getAllFunctionsNames();
+                bodyFiles.add(records);
+                bodyGlobals.add(globalVariables.getGlobalSymbols());
+                bodyMethods.add(functionNames.getMethods());
+            } catch (RuntimeException e) {
+                // the method bodies of this file are never validated
+            }
+        }
+    }
+
+    /**
+     * Runs {@link GlobalVariables#validAndCreateGlobalMap} over every parsed file.
+     *
+     * @param blackhole Consumes the global variables, or the errors.
+     */
+    @Benchmark
+    public void globalVariables(Blackhole blackhole) {
+        for (List<LineRecord> records : parsedFiles) {
+            try {
+                GlobalVariables globalVariables = new GlobalVariables(records);
+                globalVariables.validAndCreateGlobalMap();
+                blackhole.consume(globalVariables.getGlobalSymbols());
+            } catch (SyntaxException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    /**
+     * Runs {@link FunctionNames#getAllFunctionsNames} over every parsed file.
+     *
+     * @param blackhole Consumes the method signatures, or the errors.
+     */
+    @Benchmark
+    public void functionNames(Blackhole blackhole) {
+        for (List<LineRecord> records : parsedFiles) {
+            try {
+                FunctionNames functionNames = new FunctionNames(records);
+                functionNames.getAllFunctionsNames();
+                blackhole.consume(functionNames.getMethods());
+            } catch (RuntimeException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    /**
+     * Runs {@link FunctionBodyValidator#processAllMethods()} over every file whose globals and method
+     * declarations are valid.
+     *
+     * @param blackhole Consumes the errors.
+     */
+    @Benchmark
+    public void functionBodies(Blackhole blackhole) {
+        for (int file = 0; file < bodyFiles.size(); file++) {
+            try {
+                new FunctionBodyValidator(bodyFiles.get(file), bodyGlobals.get(file), bodyMethods.get(file))
+                        .processAllMethods();
+            } catch (RuntimeException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+}
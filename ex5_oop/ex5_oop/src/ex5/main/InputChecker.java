@@ -24,14 +24,31 @@ public class InputChecker {
             if (args.length != VALID_COMMAND_LINE_ARGS_NUMBER) {
                 throw new IOException(PARAMETERS_NUMBER_ERROR);
             }
-            String fileName = args[0];
-            if (!fileName.endsWith(SJAVA_VALID_SUFFIX)) {
-                throw new IOException(INVALID_SUFFIX_ERROR);
-            }
+            checkSuffix(args[0]);
         } catch (IOException e) {
             System.out.println(IO_ERROR_EXIT_CODE);
             System.out.println(e.getMessage());
             System.exit(IO_ERROR_EXIT_CODE);
         }
     }
+
+    /**
+     * Validates that the given file name has the ".sjava" suffix.
+     * @param fileName The file name to check.
+     * @throws IOException If the file name does not end with ".sjava".
+     */
+    public static void checkSuffix(String fileName) throws IOException {
+        if (!isSjavaFile(fileName)) {
+            throw new IOException(INVALID_SUFFIX_ERROR);
+        }
+    }
+
+    /**
+     * Checks whether the given file name has the ".sjava" suffix.
+     * @param fileName The file name to check.
+     * @return {@code true} if the file name ends with ".sjava", {@code false} otherwise.
+     */
+    public static boolean isSjavaFile(String fileName) {
+        return fileName.endsWith(SJAVA_VALID_SUFFIX);
+    }
 }
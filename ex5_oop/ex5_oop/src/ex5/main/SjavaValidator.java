@@ -0,0 +1,263 @@
+package ex5.main;
+
+import ex5.main.file_manager.FileProcessor;
+import ex5.main.file_manager.SourceFile;
+import ex5.main.file_manager.SourceLines;
+import ex5.main.file_manager.StreamingFileProcessor;
+import ex5.main.file_manager.SyntaxException;
+import ex5.main.file_manager.functions.FunctionSyntaxException;
+import ex5.main.file_manager.functions.MethodMemo;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Class: SjavaValidator
+ * An embeddable s-Java validator, which reports the outcome of a validation as a {@link ValidationResult}
+ * instead of printing it and terminating the JVM, so it may be hosted by a long-running process.
+ * A validator holds no state of the validated code: every validation builds its own processors, so a
+ * single instance is immutable and may be shared and used by any number of threads at once.
+ */
+public class SjavaValidator {
+    private static final String PREPROCESS_PHASE = "preprocessCheckLineValidity";
+    private static final String GLOBAL_VARIABLES_PHASE = "checkGlobalVariables";
+    private static final String FUNCTION_NAMES_PHASE = "checkFunctionNames";
+    private static final String FUNCTION_BODIES_PHASE = "checkFunctionsBody";
+    private static final String INDEX_DECLARATIONS_PHASE = "indexDeclarations";
+    private static final String ERROR_FILE_TRUNCATED = "File was truncated while it was validated: ";
+    private final ForkJoinPool methodPool;
+    private final int streamingThreshold;
+    private final MethodMemo methodMemo;
+
+    /**
+     * Constructs a validator validating the method bodies one after the other, and files of at least
+     * {@link Sjavac#STREAMING_THRESHOLD} in bounded memory.
+     */
+    public SjavaValidator() {
+        this(null, Sjavac.STREAMING_THRESHOLD);
+    }
+
+    /**
+     * Constructs a validator.
+     *
+     * @param methodPool         The pool validating the method bodies of a file concurrently, or null to
+     *                           validate them one after the other.
+     * @param streamingThreshold The size from which a file is validated in bounded memory by
+     *                           {@link StreamingFileProcessor}.
+     */
+    public SjavaValidator(ForkJoinPool methodPool, int streamingThreshold) {
+        this(methodPool, streamingThreshold, null);
+    }
+
+    /**
+     * Constructs a validator sharing a memo of the method outcomes between all its validations, so a
+     * method found in several files is validated once. The memo holds no state of a single file, so the
+     * validator may still be shared by any number of threads.
+     *
+     * @param methodPool         The pool validating the method bodies of a file concurrently, or null to
+     *                           validate them one after the other.
+     * @param streamingThreshold The size from which a file is validated in bounded memory by
+     *                           {@link StreamingFileProcessor}.
+     * @param methodMemo         The memo of the method outcomes, or null to validate every method.
+     */
+    public SjavaValidator(ForkJoinPool methodPool, int streamingThreshold, MethodMemo methodMemo) {
+        this.methodPool = methodPool;
+        this.streamingThreshold = streamingThreshold;
+        this.methodMemo = methodMemo;
+    }
+
+    /**
+     * Validates an s-Java file.
+     *
+     * @param path The path to the s-Java file.
+     * @return The result of the validation.
+     */
+    public ValidationResult validate(Path path) {
+        return validate(path, null);
+    }
+
+    /**
+     * Validates an s-Java file, recording the statistics of every phase as
+     * {@link #validate(SourceFile, ValidationStats)} does. The file is memory-mapped rather than read: a
+     * file smaller than the streaming threshold is mapped whole as a {@link SourceFile}, and a larger one is
+     * mapped a window at a time by each pass of the {@link StreamingFileProcessor} through
+     * {@link SourceLines}, so its size is bounded by neither the heap nor a single mapping.
+     * A file truncated while it is validated faults its mapping with an {@link InternalError}, which is
+     * reported as an IO error.
+     *
+     * @param path  The path to the s-Java file.
+     * @param stats The statistics the phases are recorded to, and which are finished once the validation
+     *              ends, or null to record nothing.
+     * @return The result of the validation.
+     */
+    public ValidationResult validate(Path path, ValidationStats stats) {
+        SourceFile sourceFile = null;
+        long size;
+        // the file is opened as FileReader opens it, so it is reported with the same messages
+        try (FileInputStream input = new FileInputStream(path.toFile())) {
+            FileChannel channel = input.getChannel();
+            size = channel.size();
+            if (size < streamingThreshold) {
+                // the mapping stays valid once its channel is closed
+                sourceFile = SourceFile.wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+        } catch (IOException e) {
+            if (stats != null) {
+                stats.finish();
+            }
+            return ValidationResult.ioError(e.getMessage());
+        }
+        try {
+            if (sourceFile != null) {
+                return validate(sourceFile, stats);
+            }
+            try (SourceLines sourceLines = new SourceLines(path)) {
+                return validate(() -> validateStreaming(sourceLines, stats), stats);
+            }
+        } catch (UncheckedIOException e) {
+            return ValidationResult.ioError(e.getCause().getMessage());
+        } catch (IOException e) {
+            return ValidationResult.ioError(e.getMessage());
+        } catch (InternalError e) {
+            if (!isTruncated(path, size)) {
+                throw e;
+            }
+            return ValidationResult.ioError(ERROR_FILE_TRUNCATED + path);
+        }
+    }
+
+    /**
+     * Validates s-Java code held in memory.
+     *
+     * @param code The s-Java code. It must not change during the validation.
+     * @return The result of the validation.
+     */
+    public ValidationResult validate(CharSequence code) {
+        return validate(SourceFile.of(code));
+    }
+
+    /**
+     * Validates the s-Java code read from a stream.
+     *
+     * @param input The stream holding the s-Java code. It is read to its end, and not closed.
+     * @return The result of the validation.
+     */
+    public ValidationResult validate(InputStream input) {
+        try {
+            return validate(SourceFile.read(input));
+        } catch (IOException e) {
+            return ValidationResult.ioError(e.getMessage());
+        }
+    }
+
+    /**
+     * Validates a source file.
+     * It performs the following steps:
+     * 1. Processes the file using {@link FileProcessor}, or using {@link StreamingFileProcessor} if the
+     *    file is at least as large as the streaming threshold.
+     *    - Checks global variable declarations.
+     *    - Validates function names.
+     *    - Validates the body of each function.
+     * 2. Turns the first syntax error found into the result, along with the line it was found in.
+     *
+     * @param sourceFile The s-Java source file.
+     * @return The result of the validation.
+     */
+    public ValidationResult validate(SourceFile sourceFile) {
+        return validate(sourceFile, null);
+    }
+
+    /**
+     * Validates a source file as {@link #validate(SourceFile)} does, recording the statistics of every
+     * phase: the construction of the {@link FileProcessor} with its line checks, and each of its checks,
+     * or the two passes of the {@link StreamingFileProcessor}.
+     *
+     * @param sourceFile The s-Java source file.
+     * @param stats      The statistics the phases are recorded to, and which are finished once the
+     *                   validation ends, or null to record nothing.
+     * @return The result of the validation.
+     */
+    public ValidationResult validate(SourceFile sourceFile, ValidationStats stats) {
+        if (sourceFile.size() >= streamingThreshold) {
+            return validate(() -> validateStreaming(sourceFile, stats), stats);
+        }
+        return validate(() -> validateInMemory(sourceFile, stats), stats);
+    }
+
+    // runs the phases of a validation, and turns the first syntax error they throw into the result
+    private static ValidationResult validate(Runnable phases, ValidationStats stats) {
+        try {
+            phases.run();
+        }
+        catch (SyntaxException e) {
+            return ValidationResult.syntaxError(e.getMessage(), e.getLineNumber());
+        }
+        catch (FunctionSyntaxException e) {
+            return ValidationResult.syntaxError(e.getMessage(), e.getLineNumber());
+        }
+        finally {
+            if (stats != null) {
+                stats.finish();
+            }
+        }
+        return ValidationResult.success();
+    }
+
+    private void validateInMemory(SourceFile sourceFile, ValidationStats stats) {
+        beginPhase(stats, PREPROCESS_PHASE);
+        FileProcessor fileProcessor = new FileProcessor(sourceFile.getLines());
+        endPhase(stats, fileProcessor.getLinesNumber());
+        beginPhase(stats, GLOBAL_VARIABLES_PHASE);
+        fileProcessor.checkGlobalVariables();
+        endPhase(stats, fileProcessor.getLinesNumber());
+        beginPhase(stats, FUNCTION_NAMES_PHASE);
+        fileProcessor.checkFunctionNames();
+        endPhase(stats, fileProcessor.getLinesNumber());
+        // validate file
+        beginPhase(stats, FUNCTION_BODIES_PHASE);
+        if (methodPool != null) {
+            fileProcessor.checkFunctionsBody(methodPool, methodMemo);
+        } else {
+            fileProcessor.checkFunctionsBody(methodMemo);
+        }
+        endPhase(stats, fileProcessor.getLinesNumber());
+    }
+
+    private void validateStreaming(Iterable<? extends CharSequence> sourceLines, ValidationStats stats) {
+        StreamingFileProcessor streamingFileProcessor = new StreamingFileProcessor(sourceLines);
+        beginPhase(stats, INDEX_DECLARATIONS_PHASE);
+        streamingFileProcessor.indexDeclarations();
+        endPhase(stats, streamingFileProcessor.getLinesNumber());
+        beginPhase(stats, FUNCTION_BODIES_PHASE);
+        streamingFileProcessor.checkFunctionsBody(methodMemo);
+        endPhase(stats, streamingFileProcessor.getLinesNumber());
+    }
+
+    private static void beginPhase(ValidationStats stats, String phase) {
+        if (stats != null) {
+            stats.beginPhase(phase);
+        }
+    }
+
+    private static void endPhase(ValidationStats stats, int lines) {
+        if (stats != null) {
+            stats.endPhase(lines);
+        }
+    }
+
+    // a mapping faults with an InternalError when its file gets shorter, which is only told from the
+    // other causes of that error by the current size of the file
+    private static boolean isTruncated(Path path, long mappedSize) {
+        try {
+            return Files.size(path) < mappedSize;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package ex5.main;
 
 import ex5.main.file_manager.FileProcessor;
+import ex5.main.file_manager.StreamingFileProcessor;
 
-import java.io.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
  * Class: Sjavac
  * The main entry point for the s-Java compiler. Validates and processes an s-Java source file.
- * Handles input checking, file parsing, global variable validation, function name validation,
- * and function body validation.
+ * Handles input checking and prints the result, while the validation itself is done by
+ * {@link SjavaValidator}.
+ * The optional {@value #STATS_OPTION} argument reports the {@link ValidationStats} of the validation to
+ * the standard error, or to a file with {@value #STATS_OPTION}=&lt;file&gt;, so the standard output is
+ * the same with or without it.
  */
 public class Sjavac {
     /**
@@ -20,41 +31,108 @@ public class Sjavac {
      * Exit code for io error
      */
     public static final int IO_ERROR_EXIT_CODE = 2;
-    private static final int SUCCESS_EXIT_CODE = 0;
+    /**
+     * Exit code for a legal s-Java file
+     */
+    public static final int SUCCESS_EXIT_CODE = 0;
+    /**
+     * Size from which a file is validated in bounded memory by {@link StreamingFileProcessor}
+     */
+    public static final int STREAMING_THRESHOLD = 8 * 1024 * 1024;
+    /**
+     * Argument requesting the statistics of the validation
+     */
+    public static final String STATS_OPTION = "--stats";
+    private static final String STATS_FILE_SEPARATOR = "=";
+    private static final String STATS_TO_STANDARD_ERROR = "";
+    private static final String ERROR_STATS_FILE = "Cannot write the statistics: ";
+    private static final SjavaValidator DEFAULT_VALIDATOR = new SjavaValidator();
 
     /**
      * Main method to process and validate an s-Java file.
      * The program takes a single command-line argument, which is the path to the s-Java file.
      * It performs the following steps:
      * 1. Validates the input arguments using {@link InputChecker}.
-     * 2. Reads the file specified by the input path.
-     * 3. Processes the file using {@link FileProcessor}.
-     *    - Checks global variable declarations.
-     *    - Validates function names.
-     *    - Validates the body of each function.
+     * 2. Validates the file specified by the input path using {@link #validate(String)}.
+     * 3. Prints the exit code, followed by the error message if the file is not legal.
      * 4. Exits with the appropriate error code if syntax or I/O errors occur.
      *
-     * @param args Command-line arguments. Should contain exactly one argument: the path to the s-Java file.
+     * If the statistics are requested, they are reported once the file is validated, before the result
+     * is printed.
+     *
+     * @param args Command-line arguments. Should contain exactly one argument: the path to the s-Java file,
+     *             along with the optional {@value #STATS_OPTION} argument.
      */
     public static void main(String[] args) {
-        InputChecker.checkInputParameter(args);
-        String path = args[0];
-        try (
-                FileReader fileReader = new FileReader(path);
-                BufferedReader bufferedReader = new BufferedReader(fileReader)
-        ) {
-            // PreProcess:
-            FileProcessor fileProcessor = new FileProcessor(bufferedReader);
-            fileProcessor.checkGlobalVariables();
-            fileProcessor.checkFunctionNames();
-            // validate file
-            fileProcessor.checkFunctionsBody();
-        }
-        catch (IOException e) {
-            System.out.println(IO_ERROR_EXIT_CODE);
-            System.out.println(e.getMessage());
-            System.exit(IO_ERROR_EXIT_CODE);
-        }
-        System.out.println(SUCCESS_EXIT_CODE);
+        List<String> arguments = new ArrayList<>();
+        String statsTarget = null;
+        for (String argument : args) {
+            if (argument.equals(STATS_OPTION)) {
+                statsTarget = STATS_TO_STANDARD_ERROR;
+            } else if (argument.startsWith(STATS_OPTION + STATS_FILE_SEPARATOR)) {
+                statsTarget = argument.substring(STATS_OPTION.length() + STATS_FILE_SEPARATOR.length());
+            } else {
+                arguments.add(argument);
+            }
+        }
+        String[] fileArguments = arguments.toArray(new String[0]);
+        InputChecker.checkInputParameter(fileArguments);
+        ValidationStats stats = statsTarget != null ? new ValidationStats() : null;
+        ValidationResult result = validate(fileArguments[0], DEFAULT_VALIDATOR, stats);
+        if (stats != null) {
+            reportStats(stats, statsTarget);
+        }
+        System.out.println(result.getCode());
+        if (!result.isSuccess()) {
+            System.out.println(result.getMessage());
+            System.exit(result.getCode());
+        }
+    }
+
+    /**
+     * Validates a single s-Java file without terminating the JVM, using a shared {@link SjavaValidator}.
+     *
+     * @param path The path to the s-Java file.
+     * @return The result of the validation, holding the exit code and the error message.
+     */
+    public static ValidationResult validate(String path) {
+        return validate(path, DEFAULT_VALIDATOR, null);
+    }
+
+    /**
+     * Validates a single s-Java file without terminating the JVM, as {@link #validate(String)} does,
+     * optionally validating the method bodies concurrently. The parallel mode applies only to files
+     * processed by {@link FileProcessor}, and reports the same error as the sequential mode.
+     *
+     * @param path       The path to the s-Java file.
+     * @param methodPool The pool validating the method bodies concurrently, or null to validate them
+     *                   one after the other.
+     * @return The result of the validation, holding the exit code and the error message.
+     */
+    public static ValidationResult validate(String path, ForkJoinPool methodPool) {
+        return validate(path, new SjavaValidator(methodPool, STREAMING_THRESHOLD), null);
+    }
+
+    private static ValidationResult validate(String path, SjavaValidator validator, ValidationStats stats) {
+        try {
+            return validator.validate(Paths.get(path), stats);
+        }
+        catch (InvalidPathException e) {
+            return ValidationResult.ioError(e.getMessage());
+        }
+    }
+
+    // writes the statistics to the standard error if the target is empty, and to the target file otherwise
+    private static void reportStats(ValidationStats stats, String target) {
+        if (target.isEmpty()) {
+            System.err.print(stats.format());
+            return;
+        }
+        try {
+            Files.write(Paths.get(target), stats.format().getBytes(StandardCharsets.UTF_8));
+        }
+        catch (IOException | InvalidPathException e) {
+            System.err.println(ERROR_STATS_FILE + e.getMessage());
+        }
     }
 }
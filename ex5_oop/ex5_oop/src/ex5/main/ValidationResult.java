@@ -0,0 +1,96 @@
+package ex5.main;
+
+import static ex5.main.Sjavac.IO_ERROR_EXIT_CODE;
+import static ex5.main.Sjavac.SUCCESS_EXIT_CODE;
+import static ex5.main.Sjavac.SYNTAX_ERROR_EXIT_CODE;
+import static ex5.main.file_manager.SyntaxException.UNKNOWN_LINE;
+
+/**
+ * This class represents the outcome of validating a single s-Java source file.
+ * It holds the exit code that {@link Sjavac} reports (0 - legal, 1 - illegal, 2 - IO error)
+ * and the message printed along with it. The result of a syntax error also holds the number of the
+ * line the error was found in, when the error belongs to a specific line.
+ * Results are immutable, so they may be shared between threads.
+ */
+public class ValidationResult {
+    private static final ValidationResult SUCCESS = new ValidationResult(SUCCESS_EXIT_CODE, null, UNKNOWN_LINE);
+    private final int code;
+    private final String message;
+    private final int lineNumber;
+
+    private ValidationResult(int code, String message, int lineNumber) {
+        this.code = code;
+        this.message = message;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Returns the result of a legal s-Java file.
+     * @return A result with the success exit code and no message.
+     */
+    public static ValidationResult success() {
+        return SUCCESS;
+    }
+
+    /**
+     * Creates the result of a file that contains a syntax error.
+     * @param message The message describing the syntax error.
+     * @return A result with the syntax error exit code.
+     */
+    public static ValidationResult syntaxError(String message) {
+        return syntaxError(message, UNKNOWN_LINE);
+    }
+
+    /**
+     * Creates the result of a file that contains a syntax error in a known line.
+     * @param message    The message describing the syntax error.
+     * @param lineNumber The 1-based number of the line holding the error, or
+     *                   {@link ex5.main.file_manager.SyntaxException#UNKNOWN_LINE} if it is not known.
+     * @return A result with the syntax error exit code.
+     */
+    public static ValidationResult syntaxError(String message, int lineNumber) {
+        return new ValidationResult(SYNTAX_ERROR_EXIT_CODE, message, lineNumber);
+    }
+
+    /**
+     * Creates the result of a file that could not be read.
+     * @param message The message describing the IO error.
+     * @return A result with the IO error exit code.
+     */
+    public static ValidationResult ioError(String message) {
+        return new ValidationResult(IO_ERROR_EXIT_CODE, message, UNKNOWN_LINE);
+    }
+
+    /**
+     * Retrieves the exit code of the validation.
+     * @return 0 if the file is legal, 1 if it is illegal and 2 in case of an IO error.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Retrieves the message of the validation.
+     * @return The error message, or {@code null} if the file is legal.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Retrieves the number of the line holding the syntax error.
+     * @return The 1-based number of the line, or {@link ex5.main.file_manager.SyntaxException#UNKNOWN_LINE}
+     * if the file is legal, could not be read, or its error does not belong to a specific line.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Checks whether the validated file is a legal s-Java file.
+     * @return {@code true} if the exit code is the success exit code, {@code false} otherwise.
+     */
+    public boolean isSuccess() {
+        return code == SUCCESS_EXIT_CODE;
+    }
+}
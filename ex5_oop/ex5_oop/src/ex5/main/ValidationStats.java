@@ -0,0 +1,154 @@
+package ex5.main;
+
+import ex5.main.file_manager.PatternRegistry;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class: ValidationStats
+ * Statistics of a single validation, recorded by {@link SjavaValidator}: for every phase the
+ * validation went through, its wall time, the number of lines it processed, the regular expression
+ * evaluations counted by {@link PatternRegistry} and the bytes allocated by the validating thread, and
+ * the peak heap usage of the JVM.
+ * The evaluations and the allocated bytes are those of the validating thread alone, so validations
+ * running concurrently do not add to them, and they leave out the methods validated by other threads of
+ * a method pool. The peak heap is the sum of the peak usages of the heap memory pools, which the whole
+ * JVM shares and which are never reset, so it bounds the actual peak from above, and is only a measure
+ * of the validation in a JVM running a single one, as {@link Sjavac} does.
+ * A recorder belongs to the thread running the validation, and is not thread-safe.
+ */
+public class ValidationStats {
+    /**
+     * The number of lines reported for a phase that failed before its lines were known.
+     */
+    public static final int UNKNOWN_LINES = -1;
+    private static final long UNSUPPORTED = -1;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final String HEADER_FORMAT = "%-28s %10s %10s %12s %12s %16s%n";
+    private static final String PHASE_FORMAT = "%-28s %10s %10.3f %12s %12d %16s%n";
+    private static final String PEAK_HEAP_FORMAT = "peak heap %s bytes%n";
+    private static final String[] HEADERS =
+            {"phase", "lines", "time ms", "lines/s", "regex evals", "allocated bytes"};
+    private static final String NOT_AVAILABLE = "-";
+    private static final String NUMBER_FORMAT = "%d";
+    private static final String RATE_FORMAT = "%.0f";
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final List<Phase> phases = new ArrayList<>();
+    private Phase currentPhase;
+    private long peakHeap = UNSUPPORTED;
+
+    /**
+     * Starts a phase, ending the current phase first if it was not ended.
+     *
+     * @param name The name of the phase.
+     */
+    public void beginPhase(String name) {
+        if (currentPhase != null) {
+            endPhase(UNKNOWN_LINES);
+        }
+        currentPhase = new Phase(name, System.nanoTime(), allocatedBytes(), PatternRegistry.getThreadEvaluations());
+    }
+
+    /**
+     * Ends the current phase.
+     *
+     * @param lines The number of lines the phase processed, or {@link #UNKNOWN_LINES}.
+     */
+    public void endPhase(int lines) {
+        currentPhase.end(lines, System.nanoTime(), allocatedBytes(), PatternRegistry.getThreadEvaluations());
+        phases.add(currentPhase);
+        currentPhase = null;
+    }
+
+    /**
+     * Ends the run: ends the current phase, whose lines are not known if it was interrupted by an
+     * error, and records the peak heap usage.
+     */
+    public void finish() {
+        if (currentPhase != null) {
+            endPhase(UNKNOWN_LINES);
+        }
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        peakHeap = peak;
+    }
+
+    /**
+     * Formats the statistics as a table of one line per phase, followed by the peak heap usage.
+     * A value that is not available is printed as a dash.
+     *
+     * @return The report, ending with a line separator.
+     */
+    public String format() {
+        StringBuilder report = new StringBuilder(String.format(HEADER_FORMAT, (Object[]) HEADERS));
+        for (Phase phase : phases) {
+            String rate = phase.lines == UNKNOWN_LINES || phase.nanos == 0 ? NOT_AVAILABLE :
+                    String.format(RATE_FORMAT, phase.lines * NANOS_PER_SECOND / phase.nanos);
+            report.append(String.format(PHASE_FORMAT, phase.name, formatCount(phase.lines),
+                    phase.nanos / NANOS_PER_MILLI, rate, phase.evaluations,
+                    formatCount(phase.allocatedBytes)));
+        }
+        report.append(String.format(PEAK_HEAP_FORMAT, formatCount(peakHeap)));
+        return report.toString();
+    }
+
+    private static String formatCount(long count) {
+        return count < 0 ? NOT_AVAILABLE : String.format(NUMBER_FORMAT, count);
+    }
+
+    private static long allocatedBytes() {
+        if (THREADS == null) {
+            return UNSUPPORTED;
+        }
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // the thread bean, if the JVM measures the memory allocated by threads
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    // the measures of a single phase, holding its starting values until it ends
+    private static final class Phase {
+        private final String name;
+        private int lines = UNKNOWN_LINES;
+        private long nanos;
+        private long allocatedBytes;
+        private long evaluations;
+
+        private Phase(String name, long startNanos, long startAllocatedBytes, long startEvaluations) {
+            this.name = name;
+            this.nanos = startNanos;
+            this.allocatedBytes = startAllocatedBytes;
+            this.evaluations = startEvaluations;
+        }
+
+        private void end(int lines, long endNanos, long endAllocatedBytes, long endEvaluations) {
+            this.lines = lines;
+            this.nanos = endNanos - nanos;
+            this.allocatedBytes = allocatedBytes == UNSUPPORTED ? UNSUPPORTED :
+                    endAllocatedBytes - allocatedBytes;
+            this.evaluations = endEvaluations - evaluations;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package ex5.main.batch;
+
+import ex5.main.InputChecker;
+import ex5.main.SjavaValidator;
+import ex5.main.Sjavac;
+import ex5.main.ValidationResult;
+import ex5.main.cache.ResultCache;
+import ex5.main.file_manager.functions.MethodMemo;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static ex5.main.Sjavac.IO_ERROR_EXIT_CODE;
+import static ex5.main.Sjavac.SUCCESS_EXIT_CODE;
+
+/**
+ * Class: BatchSjavac
+ * Batch entry point of the s-Java compiler. Validates every s-Java file denoted by the command-line
+ * arguments (files, directories or glob patterns) inside a single JVM, on a work-stealing pool
+ * sized to the number of available cores.
+ * For every file a single line is printed, in the order of the arguments:
+ * the file path, the exit code {@link Sjavac} would return for it and the error message, if any.
+ * A file that fails, for whatever reason, never aborts the validation of the other files.
+ * With the {@value #CACHE_OPTION}=&lt;directory&gt; option, the results are kept in a {@link ResultCache}
+ * in the given directory, holding at most {@value #CACHE_ENTRIES_OPTION}=N results, so the files that did
+ * not change since a previous run are not validated again; the counters of the cache are then printed to
+ * the standard error once every file is validated.
+ * With the {@value #MEMO_OPTION} option, or {@value #MEMO_OPTION}=N to hold at most N methods, the files
+ * share a {@link MethodMemo}, so a method found in several files is validated once; the counters of the
+ * memo are then printed to the standard error once every file is validated.
+ */
+public class BatchSjavac {
+    private static final String USAGE_ERROR =
+            "Usage: BatchSjavac [--cache=<directory> [--cache-entries=N]] [--memo[=N]] "
+            + "<file|directory|glob>...";
+    private static final String CACHE_OPTION = "--cache";
+    private static final String CACHE_ENTRIES_OPTION = "--cache-entries";
+    private static final String MEMO_OPTION = "--memo";
+    private static final String OPTION_VALUE_SEPARATOR = "=";
+    private static final String ERROR_CACHE = "Cannot open the cache: ";
+    private static final char SEPARATOR = ' ';
+    private static final SjavaValidator VALIDATOR = new SjavaValidator();
+
+    /**
+     * Validates all the s-Java files denoted by the arguments and prints one result line per file.
+     * Exits with the highest exit code among all the validated files.
+     *
+     * @param args Files, directories or glob patterns of s-Java files.
+     */
+    public static void main(String[] args) {
+        List<String> arguments = new ArrayList<>();
+        String cacheDirectory = null;
+        int cacheEntries = ResultCache.DEFAULT_MAX_ENTRIES;
+        int memoEntries = 0;
+        try {
+            for (String argument : args) {
+                if (argument.startsWith(CACHE_OPTION + OPTION_VALUE_SEPARATOR)) {
+                    cacheDirectory = optionValue(argument, CACHE_OPTION);
+                } else if (argument.startsWith(CACHE_ENTRIES_OPTION + OPTION_VALUE_SEPARATOR)) {
+                    cacheEntries = Integer.parseInt(optionValue(argument, CACHE_ENTRIES_OPTION));
+                } else if (argument.equals(MEMO_OPTION)) {
+                    memoEntries = MethodMemo.DEFAULT_MAX_ENTRIES;
+                } else if (argument.startsWith(MEMO_OPTION + OPTION_VALUE_SEPARATOR)) {
+                    memoEntries = Integer.parseInt(optionValue(argument, MEMO_OPTION));
+                    if (memoEntries < 1) {
+                        usage();
+                    }
+                } else {
+                    arguments.add(argument);
+                }
+            }
+        } catch (NumberFormatException e) {
+            usage();
+        }
+        if (arguments.isEmpty() || cacheEntries < 1) {
+            usage();
+        }
+        ResultCache cache = null;
+        if (cacheDirectory != null) {
+            try {
+                cache = new ResultCache(Paths.get(cacheDirectory), cacheEntries);
+            } catch (IOException | InvalidPathException e) {
+                System.out.println(IO_ERROR_EXIT_CODE);
+                System.out.println(ERROR_CACHE + e.getMessage());
+                System.exit(IO_ERROR_EXIT_CODE);
+            }
+        }
+        ResultCache resultCache = cache;
+        MethodMemo memo = memoEntries > 0 ? new MethodMemo(memoEntries) : null;
+        SjavaValidator validator = memo != null ?
+                new SjavaValidator(null, Sjavac.STREAMING_THRESHOLD, memo) : VALIDATOR;
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        List<String> labels = new ArrayList<>();
+        List<ForkJoinTask<ValidationResult>> tasks = new ArrayList<>();
+        for (String argument : arguments) {
+            List<SourceEntry> entries;
+            try {
+                entries = SourceCollector.collect(argument);
+            } catch (IOException e) {
+                labels.add(argument);
+                tasks.add(ioError(e.getMessage()));
+                continue;
+            } catch (RuntimeException e) {
+                labels.add(argument);
+                tasks.add(ioError(e.toString()));
+                continue;
+            }
+            for (SourceEntry entry : entries) {
+                Path file = entry.getPath();
+                labels.add(file.toString());
+                if (entry.isFailure()) {
+                    tasks.add(ioError(entry.getErrorMessage()));
+                } else {
+                    tasks.add(pool.submit(() -> validateFile(file, resultCache, validator)));
+                }
+            }
+        }
+        int exitCode = SUCCESS_EXIT_CODE;
+        for (int index = 0; index < tasks.size(); index++) {
+            ValidationResult result = tasks.get(index).join();
+            System.out.println(formatResult(labels.get(index), result));
+            exitCode = Math.max(exitCode, result.getCode());
+        }
+        pool.shutdown();
+        if (resultCache != null) {
+            System.err.print(resultCache.formatCounters());
+        }
+        if (memo != null) {
+            System.err.print(memo.formatCounters());
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * Validates a single file, turning every failure into a result instead of an exception.
+     *
+     * @param file The s-Java file to validate.
+     * @return The result of the validation.
+     */
+    public static ValidationResult validateFile(Path file) {
+        return validateFile(file, null);
+    }
+
+    /**
+     * Validates a single file as {@link #validateFile(Path)} does, reusing the cached result of its
+     * content if there is one.
+     *
+     * @param file  The s-Java file to validate.
+     * @param cache The cache of the results, or null to validate the file in any case.
+     * @return The result of the validation.
+     */
+    public static ValidationResult validateFile(Path file, ResultCache cache) {
+        return validateFile(file, cache, VALIDATOR);
+    }
+
+    private static ValidationResult validateFile(Path file, ResultCache cache, SjavaValidator validator) {
+        try {
+            InputChecker.checkSuffix(file.toString());
+            return cache != null ? cache.validate(file, validator) : validator.validate(file);
+        } catch (IOException e) {
+            return ValidationResult.ioError(e.getMessage());
+        } catch (RuntimeException | StackOverflowError e) {
+            return ValidationResult.syntaxError(e.toString());
+        }
+    }
+
+    /**
+     * Formats the result line of a single file: the path, the exit code and the message, if any.
+     *
+     * @param label  The path of the validated file.
+     * @param result The result of the validation.
+     * @return The line describing the result.
+     */
+    public static String formatResult(String label, ValidationResult result) {
+        StringBuilder line = new StringBuilder(label).append(SEPARATOR).append(result.getCode());
+        if (!result.isSuccess()) {
+            line.append(SEPARATOR).append(result.getMessage());
+        }
+        return line.toString();
+    }
+
+    // the result of an argument or a path that is reported without being validated
+    private static ForkJoinTask<ValidationResult> ioError(String message) {
+        return ForkJoinTask.adapt(() -> ValidationResult.ioError(message)).fork();
+    }
+
+    private static String optionValue(String argument, String option) {
+        return argument.substring(option.length() + OPTION_VALUE_SEPARATOR.length());
+    }
+
+    private static void usage() {
+        System.out.println(IO_ERROR_EXIT_CODE);
+        System.out.println(USAGE_ERROR);
+        System.exit(IO_ERROR_EXIT_CODE);
+    }
+}
@@ -0,0 +1,112 @@
+package ex5.main.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single line of a test manifest, in the format of {@code presubmission_sjavac_tests.txt}:
+ * the name of an s-Java file, the exit code {@link ex5.main.Sjavac} is expected to return for it and a
+ * description of the test, separated by spaces. The description may hold spaces of its own, and may be
+ * missing. Blank lines are skipped.
+ */
+public class ManifestEntry {
+    private static final String SEPARATOR = " ";
+    private static final int FIELDS = 3;
+    private static final int FILE_FIELD = 0;
+    private static final int CODE_FIELD = 1;
+    private static final int DESCRIPTION_FIELD = 2;
+    private static final String NO_DESCRIPTION = "";
+    private static final String ERROR_MALFORMED_LINE = "Malformed manifest line %d: %s";
+
+    private final String file;
+    private final int expectedCode;
+    private final String description;
+
+    /**
+     * Constructs an entry.
+     *
+     * @param file         The name of the s-Java file, relative to the tests directory.
+     * @param expectedCode The expected exit code.
+     * @param description  The description of the test.
+     */
+    public ManifestEntry(String file, int expectedCode, String description) {
+        this.file = file;
+        this.expectedCode = expectedCode;
+        this.description = description;
+    }
+
+    /**
+     * Reads all the entries of a manifest, in their order in the manifest.
+     *
+     * @param manifest The path to the manifest.
+     * @return The entries of the manifest.
+     * @throws IOException If the manifest cannot be read, or one of its lines is malformed.
+     */
+    public static List<ManifestEntry> read(Path manifest) throws IOException {
+        List<ManifestEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.ISO_8859_1)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank()) {
+                    entries.add(parse(line, lineNumber));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Parses a single line of a manifest.
+     *
+     * @param line       The line.
+     * @param lineNumber The number of the line in the manifest, reported if the line is malformed.
+     * @return The entry of the line.
+     * @throws IOException If the line has no file name or no integer exit code.
+     */
+    public static ManifestEntry parse(String line, int lineNumber) throws IOException {
+        String[] fields = line.trim().split(SEPARATOR, FIELDS);
+        if (fields.length <= CODE_FIELD) {
+            throw new IOException(String.format(ERROR_MALFORMED_LINE, lineNumber, line));
+        }
+        try {
+            String description = fields.length > DESCRIPTION_FIELD ? fields[DESCRIPTION_FIELD] : NO_DESCRIPTION;
+            return new ManifestEntry(fields[FILE_FIELD], Integer.parseInt(fields[CODE_FIELD]), description);
+        } catch (NumberFormatException e) {
+            throw new IOException(String.format(ERROR_MALFORMED_LINE, lineNumber, line));
+        }
+    }
+
+    /**
+     * Retrieves the name of the s-Java file of the test.
+     *
+     * @return The name of the file, relative to the tests directory.
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Retrieves the exit code the test expects.
+     *
+     * @return The expected exit code.
+     */
+    public int getExpectedCode() {
+        return expectedCode;
+    }
+
+    /**
+     * Retrieves the description of the test.
+     *
+     * @return The description, or an empty string if the manifest gives none.
+     */
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,166 @@
+package ex5.main.batch;
+
+import ex5.main.ValidationResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static ex5.main.Sjavac.IO_ERROR_EXIT_CODE;
+import static ex5.main.Sjavac.SUCCESS_EXIT_CODE;
+import static ex5.main.Sjavac.SYNTAX_ERROR_EXIT_CODE;
+
+/**
+ * Class: RegressionRunner
+ * Runs the tests of a manifest, such as {@code supplied_material/presubmission_sjavac_tests.txt} or the
+ * manifest of a generated corpus, inside a single JVM: every file of the manifest is validated as
+ * {@link BatchSjavac} validates it, concurrently on a work-stealing pool, and its exit code is compared
+ * to the expected one.
+ * For every test a single line is printed, in the order of the manifest: PASS or FAIL, the file, the exit
+ * code, the latency of its validation and, for a failure, the expected code, the description and the
+ * error message. The suite ends with a summary: the passed tests, the wall time and throughput of the
+ * whole suite, and the percentiles of the latencies, which include the contention between the threads
+ * unless a single thread is used.
+ * The files are looked up in the tests directory, which is the directory of the manifest, or its "tests"
+ * subdirectory if it has one, unless it is given explicitly.
+ * Exits with 0 if every test passed, 1 if one of them failed and 2 if the manifest cannot be read.
+ * Usage: RegressionRunner &lt;manifest&gt; [--tests &lt;directory&gt;] [--threads N]
+ */
+public class RegressionRunner {
+    private static final String USAGE_ERROR =
+            "Usage: RegressionRunner <manifest> [--tests <directory>] [--threads N]";
+    private static final String TESTS_OPTION = "--tests";
+    private static final String THREADS_OPTION = "--threads";
+    private static final String DEFAULT_TESTS_SUBDIRECTORY = "tests";
+    private static final String PASS_FORMAT = "PASS %s %d %.3f ms%n";
+    private static final String FAIL_FORMAT = "FAIL %s %d %.3f ms expected %d (%s) %s%n";
+    private static final String SUMMARY_FORMAT = "passed %d/%d, %d failed, %.1f ms wall time, %.1f files/s%n";
+    private static final String PERCENTILES_FORMAT =
+            "latency p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms, mean %.3f ms%n";
+    private static final String NO_MESSAGE = "";
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double MEDIAN = 0.5;
+    private static final double NINETIETH = 0.9;
+    private static final double NINETY_NINTH = 0.99;
+
+    /**
+     * Runs the tests of the manifest given as the first argument, and prints a line per test and a
+     * summary of the suite.
+     *
+     * @param args The manifest, followed by options.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0 || args.length % 2 == 0) {
+            usage();
+        }
+        Path manifest = Paths.get(args[0]);
+        Path testsDirectory = defaultTestsDirectory(manifest);
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int index = 1; index < args.length; index += 2) {
+                if (args[index].equals(TESTS_OPTION)) {
+                    testsDirectory = Paths.get(args[index + 1]);
+                } else if (args[index].equals(THREADS_OPTION) && Integer.parseInt(args[index + 1]) > 0) {
+                    threads = Integer.parseInt(args[index + 1]);
+                } else {
+                    usage();
+                }
+            }
+        } catch (NumberFormatException | InvalidPathException e) {
+            usage();
+        }
+        List<ManifestEntry> entries;
+        try {
+            entries = ManifestEntry.read(manifest);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            System.exit(IO_ERROR_EXIT_CODE);
+            return;
+        }
+        System.exit(run(entries, testsDirectory, threads));
+    }
+
+    /**
+     * Runs the tests of a manifest, and prints a line per test and a summary of the suite.
+     *
+     * @param entries        The tests.
+     * @param testsDirectory The directory the files of the tests are looked up in.
+     * @param threads        The number of threads validating the files.
+     * @return 0 if every test passed, 1 otherwise.
+     */
+    public static int run(List<ManifestEntry> entries, Path testsDirectory, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        List<ForkJoinTask<ValidationResult>> tasks = new ArrayList<>();
+        long[] latencies = new long[entries.size()];
+        for (int index = 0; index < entries.size(); index++) {
+            int test = index;
+            Path file = testsDirectory.resolve(entries.get(index).getFile());
+            tasks.add(pool.submit(() -> {
+                long testStart = System.nanoTime();
+                ValidationResult result = BatchSjavac.validateFile(file);
+                latencies[test] = System.nanoTime() - testStart;
+                return result;
+            }));
+        }
+        int passed = 0;
+        for (int index = 0; index < entries.size(); index++) {
+            ManifestEntry entry = entries.get(index);
+            ValidationResult result = tasks.get(index).join();
+            double latency = latencies[index] / NANOS_PER_MILLI;
+            if (result.getCode() == entry.getExpectedCode()) {
+                passed++;
+                System.out.printf(PASS_FORMAT, entry.getFile(), result.getCode(), latency);
+            } else {
+                String message = result.getMessage() != null ? result.getMessage() : NO_MESSAGE;
+                System.out.printf(FAIL_FORMAT, entry.getFile(), result.getCode(), latency,
+                        entry.getExpectedCode(), entry.getDescription(), message);
+            }
+        }
+        long wallTime = System.nanoTime() - start;
+        pool.shutdown();
+        System.out.printf(SUMMARY_FORMAT, passed, entries.size(), entries.size() - passed,
+                wallTime / NANOS_PER_MILLI, entries.size() * NANOS_PER_SECOND / Math.max(wallTime, 1));
+        if (!entries.isEmpty()) {
+            printPercentiles(latencies);
+        }
+        return passed == entries.size() ? SUCCESS_EXIT_CODE : SYNTAX_ERROR_EXIT_CODE;
+    }
+
+    private static void printPercentiles(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long latency : sorted) {
+            total += latency;
+        }
+        System.out.printf(PERCENTILES_FORMAT, percentile(sorted, MEDIAN) / NANOS_PER_MILLI,
+                percentile(sorted, NINETIETH) / NANOS_PER_MILLI, percentile(sorted, NINETY_NINTH) / NANOS_PER_MILLI,
+                sorted[sorted.length - 1] / NANOS_PER_MILLI, (double) total / sorted.length / NANOS_PER_MILLI);
+    }
+
+    // the nearest-rank percentile: the smallest latency that at least the given fraction of the tests reach
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static Path defaultTestsDirectory(Path manifest) {
+        Path directory = manifest.toAbsolutePath().getParent();
+        Path subdirectory = directory.resolve(DEFAULT_TESTS_SUBDIRECTORY);
+        return Files.isDirectory(subdirectory) ? subdirectory : directory;
+    }
+
+    private static void usage() {
+        System.out.println(USAGE_ERROR);
+        System.exit(IO_ERROR_EXIT_CODE);
+    }
+}
@@ -0,0 +1,130 @@
+package ex5.main.batch;
+
+import ex5.main.InputChecker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Expands the command-line arguments of a batch run into the list of s-Java files to validate.
+ * Every argument may be a single file, a directory (walked recursively for ".sjava" files),
+ * or a glob pattern such as {@code submissions/**}{@code /*.sjava}.
+ * A part of a walked file tree that cannot be read does not stop the walk: it is collected as a failure
+ * entry, in its place among the files, and the rest of the tree is still walked.
+ */
+public class SourceCollector {
+    private static final String GLOB_CHARACTERS = "*?[{";
+    private static final String GLOB_SYNTAX = "glob:";
+    private static final String CURRENT_DIRECTORY = "";
+    private static final char UNIX_SEPARATOR = '/';
+    private static final String ERROR_NO_MATCH = "No file matches: ";
+    private static final String ERROR_INVALID_GLOB = "Invalid glob pattern: ";
+    private static final String ERROR_UNREADABLE = "Cannot be read: ";
+
+    /**
+     * Expands a single argument into the s-Java files it denotes, sorted by path, along with the parts of
+     * the walked file tree that cannot be read.
+     * Explicitly named files are returned as is, so a wrong suffix or a missing file is reported for them
+     * later, with the same message {@link ex5.main.Sjavac} reports.
+     *
+     * @param argument A file, a directory or a glob pattern.
+     * @return The entries denoted by the argument.
+     * @throws IOException If the argument is not a valid path or glob pattern, if a glob pattern matches
+     *                     nothing, or if the directory a glob pattern starts from does not exist.
+     */
+    public static List<SourceEntry> collect(String argument) throws IOException {
+        try {
+            if (isGlob(argument)) {
+                return collectGlob(argument);
+            }
+            Path path = Paths.get(argument);
+            if (Files.isDirectory(path)) {
+                return walk(path, file -> InputChecker.isSjavaFile(file.toString()));
+            }
+            List<SourceEntry> single = new ArrayList<>();
+            single.add(SourceEntry.file(path));
+            return single;
+        } catch (PatternSyntaxException e) {
+            // the message of the exception spans several lines, while a result is reported on a single one
+            throw new IOException(ERROR_INVALID_GLOB + argument + " (" + e.getDescription() + ")", e);
+        } catch (InvalidPathException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static boolean isGlob(String argument) {
+        for (int index = 0; index < argument.length(); index++) {
+            if (GLOB_CHARACTERS.indexOf(argument.charAt(index)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<SourceEntry> collectGlob(String argument) throws IOException {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher(GLOB_SYNTAX + argument);
+        List<SourceEntry> files = walk(globBase(argument), matcher::matches);
+        if (files.isEmpty()) {
+            throw new NoSuchFileException(ERROR_NO_MATCH + argument);
+        }
+        return files;
+    }
+
+    // the directory part of the argument that precedes its first glob character
+    private static Path globBase(String argument) {
+        String prefix = argument.substring(0, firstGlobCharacter(argument));
+        int separator = Math.max(prefix.lastIndexOf(UNIX_SEPARATOR), prefix.lastIndexOf(File.separatorChar));
+        if (separator < 0) {
+            return Paths.get(CURRENT_DIRECTORY);
+        }
+        return Paths.get(prefix.substring(0, separator + 1));
+    }
+
+    private static int firstGlobCharacter(String argument) {
+        int index = 0;
+        while (GLOB_CHARACTERS.indexOf(argument.charAt(index)) < 0) {
+            index++;
+        }
+        return index;
+    }
+
+    private static List<SourceEntry> walk(Path root, PathMatcher filter) throws IOException {
+        if (!Files.isDirectory(root)) {
+            throw new NoSuchFileException(root.toString());
+        }
+        List<SourceEntry> entries = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                // a link is followed to the file it points to, as Files.isRegularFile follows it
+                if (Files.isRegularFile(file) && filter.matches(file)) {
+                    entries.add(SourceEntry.file(file));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                entries.add(SourceEntry.failure(file, ERROR_UNREADABLE + e.getMessage()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException e) {
+                // the directory could not be listed to its end
+                if (e != null) {
+                    entries.add(SourceEntry.failure(directory, ERROR_UNREADABLE + e.getMessage()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        entries.sort(Comparator.comparing(SourceEntry::getPath));
+        return entries;
+    }
+}
@@ -0,0 +1,62 @@
+package ex5.main.batch;
+
+import java.nio.file.Path;
+
+/**
+ * A single entry collected by {@link SourceCollector}: either an s-Java file to validate, or a part of a
+ * walked file tree that could not be read, along with the reason it could not be read.
+ */
+public class SourceEntry {
+    private final Path path;
+    private final String errorMessage;
+
+    private SourceEntry(Path path, String errorMessage) {
+        this.path = path;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Constructs the entry of an s-Java file to validate.
+     *
+     * @param path The path to the file.
+     * @return The entry of the file.
+     */
+    public static SourceEntry file(Path path) {
+        return new SourceEntry(path, null);
+    }
+
+    /**
+     * Constructs the entry of a path that could not be read.
+     *
+     * @param path         The path that could not be read.
+     * @param errorMessage The reason it could not be read.
+     * @return The entry of the path.
+     */
+    public static SourceEntry failure(Path path, String errorMessage) {
+        return new SourceEntry(path, errorMessage);
+    }
+
+    /**
+     * Retrieves the path of the entry.
+     * @return The path of the file, or of the part of the file tree that could not be read.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Retrieves whether the entry could not be read.
+     * @return True if the entry is a path that could not be read, false if it is a file to validate.
+     */
+    public boolean isFailure() {
+        return errorMessage != null;
+    }
+
+    /**
+     * Retrieves the reason the path could not be read.
+     * @return The error message, or {@code null} if the entry is a file to validate.
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
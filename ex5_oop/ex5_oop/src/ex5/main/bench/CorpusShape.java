@@ -0,0 +1,115 @@
+package ex5.main.bench;
+
+/**
+ * The shape of the programs of a synthetic corpus: how many globals, methods and parameters they have,
+ * how long and how deeply nested their method bodies are, how often they call methods, how long their
+ * String literals are and how many comment lines they hold.
+ * A program grows linearly with the number of methods and of globals, and exponentially with the
+ * nesting depth, as every block holds up to {@link #getStatements()} statements of its own.
+ */
+public class CorpusShape {
+    private final int globals;
+    private final int methods;
+    private final int parameters;
+    private final int statements;
+    private final int depth;
+    private final double callDensity;
+    private final int literalSize;
+    private final double commentRatio;
+
+    /**
+     * Constructs a shape.
+     *
+     * @param globals      The number of global variables.
+     * @param methods      The number of methods.
+     * @param parameters   The maximal number of parameters of a method.
+     * @param statements   The maximal number of statements of a method body or a block, at least 1.
+     * @param depth        The maximal nesting depth of if/while blocks.
+     * @param callDensity  The probability of a statement to be a method call, between 0 and 1.
+     * @param literalSize  The number of characters of a String literal, quotes excluded.
+     * @param commentRatio The probability of a comment line before every line, between 0 and 1.
+     */
+    public CorpusShape(int globals, int methods, int parameters, int statements, int depth,
+                       double callDensity, int literalSize, double commentRatio) {
+        this.globals = globals;
+        this.methods = methods;
+        this.parameters = parameters;
+        this.statements = statements;
+        this.depth = depth;
+        this.callDensity = callDensity;
+        this.literalSize = literalSize;
+        this.commentRatio = commentRatio;
+    }
+
+    /**
+     * Retrieves the number of global variables.
+     *
+     * @return The number of global variables.
+     */
+    public int getGlobals() {
+        return globals;
+    }
+
+    /**
+     * Retrieves the number of methods.
+     *
+     * @return The number of methods.
+     */
+    public int getMethods() {
+        return methods;
+    }
+
+    /**
+     * Retrieves the maximal number of parameters of a method.
+     *
+     * @return The maximal number of parameters of a method.
+     */
+    public int getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Retrieves the maximal number of statements of a method body or a block.
+     *
+     * @return The maximal number of statements of a method body or a block.
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Retrieves the maximal nesting depth of if/while blocks.
+     *
+     * @return The maximal nesting depth of if/while blocks.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Retrieves the probability of a statement to be a method call.
+     *
+     * @return The probability of a statement to be a method call.
+     */
+    public double getCallDensity() {
+        return callDensity;
+    }
+
+    /**
+     * Retrieves the number of characters of a String literal, quotes excluded.
+     *
+     * @return The number of characters of a String literal, quotes excluded.
+     */
+    public int getLiteralSize() {
+        return literalSize;
+    }
+
+    /**
+     * Retrieves the probability of a comment line before every line.
+     *
+     * @return The probability of a comment line before every line.
+     */
+    public double getCommentRatio() {
+        return commentRatio;
+    }
+}
@@ -0,0 +1,84 @@
+package ex5.main.bench;
+
+/**
+ * The deliberate errors a {@link SyntheticProgram} may be generated with. A program holds at most one
+ * of them, and is valid without one; each error alone makes the whole program invalid, whatever the
+ * rest of the program is.
+ */
+public enum Mutation {
+    /**
+     * No error: the program is valid.
+     */
+    NONE("valid program", false, false),
+    /**
+     * A global declaration without its closing semicolon.
+     */
+    MISSING_SEMICOLON("global declaration without semicolon", false, false),
+    /**
+     * A global variable declared twice.
+     */
+    DUPLICATE_GLOBAL("duplicate global variable", false, true),
+    /**
+     * A closing brace after the last method.
+     */
+    UNMATCHED_BRACE("unmatched closing brace", false, false),
+    /**
+     * A String literal given to a local int variable.
+     */
+    TYPE_MISMATCH("String literal assigned to int local variable", true, false),
+    /**
+     * An assignment to a variable that was never declared.
+     */
+    UNDEFINED_VARIABLE("assignment to undefined variable", true, false),
+    /**
+     * A method call with one argument too many.
+     */
+    WRONG_ARGUMENT_COUNT("method call with one argument too many", true, false),
+    /**
+     * A final local variable declared without a value.
+     */
+    FINAL_WITHOUT_VALUE("final local variable without value", true, false),
+    /**
+     * A method whose last line is not a return statement.
+     */
+    MISSING_RETURN("method without return at its end", true, false);
+
+    private final String description;
+    private final boolean needsMethod;
+    private final boolean needsGlobal;
+
+    Mutation(String description, boolean needsMethod, boolean needsGlobal) {
+        this.description = description;
+        this.needsMethod = needsMethod;
+        this.needsGlobal = needsGlobal;
+    }
+
+    /**
+     * Retrieves the description of the error, as written in the expected results of a corpus.
+     *
+     * @return The description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Retrieves the exit code the validator is expected to return for a program with this error.
+     *
+     * @return 0 for a valid program, 1 otherwise.
+     */
+    public int getExpectedCode() {
+        return this == NONE ? 0 : 1;
+    }
+
+    /**
+     * Checks whether a program of the given shape can hold this error: an error inside a method needs
+     * a method, and a duplicate global needs a global.
+     *
+     * @param shape The shape of the program.
+     * @return true if the error can be generated, false otherwise.
+     */
+    public boolean appliesTo(CorpusShape shape) {
+        return (!needsMethod || shape.getMethods() > 0) && (!needsGlobal || shape.getGlobals() > 0);
+    }
+}
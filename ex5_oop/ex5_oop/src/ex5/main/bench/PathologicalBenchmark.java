@@ -0,0 +1,85 @@
+package ex5.main.bench;
+
+import ex5.main.SjavaValidator;
+
+/**
+ * Class: PathologicalBenchmark
+ * Measures the worst-case validation latency of the {@link PathologicalCorpus} sources, doubling the
+ * length of their long line from {@link #MIN_LENGTH} up to a maximum length (1 MB by default, or the
+ * first argument).
+ * For every source and length a single line is printed: the source, the length, the best latency out of
+ * several runs and the latency per character. Since the line recognition is linear in the length of the
+ * line, the latency per character must not grow with the line; a source whose latency per character
+ * grows more than {@link #MAX_COST_GROWTH} times over the cheapest shorter length is reported as
+ * superlinear, and the benchmark then exits with 1.
+ */
+public class PathologicalBenchmark {
+    /**
+     * The shortest generated line.
+     */
+    public static final int MIN_LENGTH = 1 << 12;
+    /**
+     * The growth of the latency per character, from the cheapest length to any longer length, from which
+     * a source is reported as superlinear.
+     */
+    public static final double MAX_COST_GROWTH = 4;
+    private static final int DEFAULT_MAX_LENGTH = 1 << 20;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final int SUCCESS_EXIT_CODE = 0;
+    private static final int SUPERLINEAR_EXIT_CODE = 1;
+    private static final String RESULT_FORMAT = "%-28s %9d chars %10.3f ms %8.2f ns/char%n";
+    private static final String SUPERLINEAR_FORMAT = "%-28s superlinear: %.2f ns/char grew to %.2f ns/char%n";
+    private static final String SUMMARY_FORMAT = "worst latency %.3f ms (%s at %d chars)%n";
+
+    private static final SjavaValidator VALIDATOR = new SjavaValidator();
+
+    /**
+     * Runs the benchmark over all the sources of the corpus.
+     *
+     * @param args The maximum length of a generated line, optionally.
+     */
+    public static void main(String[] args) {
+        int maxLength = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MAX_LENGTH;
+        boolean isLinear = true;
+        long worstNanos = 0;
+        PathologicalCorpus worstSource = null;
+        int worstLength = 0;
+        for (PathologicalCorpus source : PathologicalCorpus.values()) {
+            double cheapestCost = Double.MAX_VALUE;
+            for (int length = MIN_LENGTH; length <= maxLength; length *= 2) {
+                String text = source.generate(length);
+                long nanos = measure(text);
+                double cost = (double) nanos / text.length();
+                System.out.printf(RESULT_FORMAT, source, text.length(), nanos / NANOS_PER_MILLI, cost);
+                if (cost > MAX_COST_GROWTH * cheapestCost) {
+                    System.out.printf(SUPERLINEAR_FORMAT, source, cheapestCost, cost);
+                    isLinear = false;
+                }
+                cheapestCost = Math.min(cheapestCost, cost);
+                if (nanos > worstNanos) {
+                    worstNanos = nanos;
+                    worstSource = source;
+                    worstLength = text.length();
+                }
+            }
+        }
+        System.out.printf(SUMMARY_FORMAT, worstNanos / NANOS_PER_MILLI, worstSource, worstLength);
+        System.exit(isLinear ? SUCCESS_EXIT_CODE : SUPERLINEAR_EXIT_CODE);
+    }
+
+    // the best latency out of the measured runs, after the warmup runs
+    private static long measure(String text) {
+        for (int run = 0; run < WARMUP_RUNS; run++) {
+            VALIDATOR.validate(text);
+        }
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            long start = System.nanoTime();
+            VALIDATOR.validate(text);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
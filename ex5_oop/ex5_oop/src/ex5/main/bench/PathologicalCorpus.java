@@ -0,0 +1,80 @@
+package ex5.main.bench;
+
+/**
+ * A corpus of pathological s-Java sources: each one holds a single very long line that a backtracking
+ * regular expression would explore again and again, such as a declaration repeating its comma-separated
+ * group without a closing semicolon, or a call whose argument list never closes.
+ * Every source is generated at any requested length, so the validation latency can be measured as the
+ * line grows; a linear-time recognizer validates a source in time proportional to its length.
+ */
+public enum PathologicalCorpus {
+    /**
+     * A declaration repeating its variables without the closing semicolon.
+     */
+    UNTERMINATED_DECLARATION("int ", "a = 1, ", ""),
+    /**
+     * A declaration of many variables that ends with a malformed variable.
+     */
+    MALFORMED_DECLARATION_TAIL("int ", "a = 1, ", "= ;"),
+    /**
+     * A well-formed declaration redeclaring the same variable over and over.
+     */
+    REPEATED_DECLARATION("int ", "a = 1, ", "b;"),
+    /**
+     * An assignment repeating its variables without the closing semicolon, in a method.
+     */
+    UNTERMINATED_ASSIGNMENT("void f() {\n", "a = 1, ", "\nreturn;\n}\n"),
+    /**
+     * A method call whose argument list never closes.
+     */
+    UNCLOSED_METHOD_CALL("void f() {\nf(", "a, ", "\nreturn;\n}\n"),
+    /**
+     * A method call with a well-formed but very long argument list.
+     */
+    LONG_METHOD_CALL("void f() {\nf(", "a , ", "a);\nreturn;\n}\n"),
+    /**
+     * A method declaration with a very long parameter list.
+     */
+    LONG_PARAMETER_LIST("void f(", "int a, ", "int b) {\nreturn;\n}\n"),
+    /**
+     * A String literal whose closing quote is missing.
+     */
+    UNTERMINATED_STRING("String s = \"", "a", ";"),
+    /**
+     * A well-formed, very long String literal.
+     */
+    LONG_STRING("String s = \"", "a", "\";"),
+    /**
+     * An if condition chaining very many operands.
+     */
+    LONG_CONDITION("void f() {\nif (", "true || ", "false) {\n}\nreturn;\n}\n"),
+    /**
+     * A line suffix followed by a long run of whitespace and then by a character that invalidates it.
+     */
+    TRAILING_WHITESPACE(";", " ", "x"),
+    /**
+     * Very many line suffixes, none of which ends the line.
+     */
+    REPEATED_SUFFIXES("", "; ", "x");
+
+    private final String prefix;
+    private final String repeated;
+    private final String suffix;
+
+    PathologicalCorpus(String prefix, String repeated, String suffix) {
+        this.prefix = prefix;
+        this.repeated = repeated;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Generates the source at a given length, repeating the pathological part of its line.
+     *
+     * @param length The approximate number of characters of the source.
+     * @return The s-Java source.
+     */
+    public String generate(int length) {
+        int repetitions = Math.max(1, (length - prefix.length() - suffix.length()) / repeated.length());
+        return prefix + repeated.repeat(repetitions) + suffix;
+    }
+}
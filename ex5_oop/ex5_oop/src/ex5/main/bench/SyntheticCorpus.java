@@ -0,0 +1,184 @@
+package ex5.main.bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class: SyntheticCorpus
+ * Generates a corpus of {@link SyntheticProgram}s of a given {@link CorpusShape} into a directory, along
+ * with the expected result of every file in {@value #EXPECTED_RESULTS_FILE}, in the format of the
+ * presubmission tests: the file name, the expected exit code and a description, one file per line.
+ * The corpus is fully determined by its seed and its options, so a corpus is reproduced rather than
+ * stored. A fraction of the files (the invalid ratio) holds a single {@link Mutation}, chosen at random
+ * among those the shape allows; the other files are valid.
+ * Usage: SyntheticCorpus &lt;output dir&gt; [--files N] [--seed S] [--globals G] [--methods M]
+ * [--parameters P] [--statements S] [--depth D] [--call-density C] [--literal-size L]
+ * [--comment-ratio R] [--invalid-ratio F]
+ */
+public class SyntheticCorpus {
+    /**
+     * The file of the expected results, written to the output directory.
+     */
+    public static final String EXPECTED_RESULTS_FILE = "sjavac_tests.txt";
+    private static final String USAGE_ERROR = "Usage: SyntheticCorpus <output dir> [--files N] [--seed S] " +
+            "[--globals G] [--methods M] [--parameters P] [--statements S] [--depth D] [--call-density C] " +
+            "[--literal-size L] [--comment-ratio R] [--invalid-ratio F]";
+    private static final String FILE_NAME_FORMAT = "gen%06d.sjava";
+    private static final String EXPECTED_RESULT_FORMAT = "%s %d %s%n";
+    private static final String SUMMARY_FORMAT = "%d files (%d invalid), %d bytes written to %s%n";
+    private static final String FILES_OPTION = "--files";
+    private static final String SEED_OPTION = "--seed";
+    private static final String GLOBALS_OPTION = "--globals";
+    private static final String METHODS_OPTION = "--methods";
+    private static final String PARAMETERS_OPTION = "--parameters";
+    private static final String STATEMENTS_OPTION = "--statements";
+    private static final String DEPTH_OPTION = "--depth";
+    private static final String CALL_DENSITY_OPTION = "--call-density";
+    private static final String LITERAL_SIZE_OPTION = "--literal-size";
+    private static final String COMMENT_RATIO_OPTION = "--comment-ratio";
+    private static final String INVALID_RATIO_OPTION = "--invalid-ratio";
+    private static final int DEFAULT_FILES = 100;
+    private static final long DEFAULT_SEED = 0;
+    private static final int DEFAULT_GLOBALS = 10;
+    private static final int DEFAULT_METHODS = 10;
+    private static final int DEFAULT_PARAMETERS = 3;
+    private static final int DEFAULT_STATEMENTS = 8;
+    private static final int DEFAULT_DEPTH = 2;
+    private static final double DEFAULT_CALL_DENSITY = 0.1;
+    private static final int DEFAULT_LITERAL_SIZE = 8;
+    private static final double DEFAULT_COMMENT_RATIO = 0.05;
+    private static final double DEFAULT_INVALID_RATIO = 0.5;
+    private static final int USAGE_EXIT_CODE = 2;
+
+    /**
+     * Generates a corpus into the directory given as the first argument, creating it if needed.
+     *
+     * @param args The output directory, followed by options.
+     * @throws IOException If the corpus cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args.length % 2 == 0) {
+            usage();
+        }
+        Path directory = Paths.get(args[0]);
+        int files = DEFAULT_FILES;
+        long seed = DEFAULT_SEED;
+        int globals = DEFAULT_GLOBALS;
+        int methods = DEFAULT_METHODS;
+        int parameters = DEFAULT_PARAMETERS;
+        int statements = DEFAULT_STATEMENTS;
+        int depth = DEFAULT_DEPTH;
+        double callDensity = DEFAULT_CALL_DENSITY;
+        int literalSize = DEFAULT_LITERAL_SIZE;
+        double commentRatio = DEFAULT_COMMENT_RATIO;
+        double invalidRatio = DEFAULT_INVALID_RATIO;
+        try {
+            for (int index = 1; index < args.length; index += 2) {
+                String value = args[index + 1];
+                switch (args[index]) {
+                    case FILES_OPTION:
+                        files = Integer.parseInt(value);
+                        break;
+                    case SEED_OPTION:
+                        seed = Long.parseLong(value);
+                        break;
+                    case GLOBALS_OPTION:
+                        globals = Integer.parseInt(value);
+                        break;
+                    case METHODS_OPTION:
+                        methods = Integer.parseInt(value);
+                        break;
+                    case PARAMETERS_OPTION:
+                        parameters = Integer.parseInt(value);
+                        break;
+                    case STATEMENTS_OPTION:
+                        statements = Integer.parseInt(value);
+                        break;
+                    case DEPTH_OPTION:
+                        depth = Integer.parseInt(value);
+                        break;
+                    case CALL_DENSITY_OPTION:
+                        callDensity = Double.parseDouble(value);
+                        break;
+                    case LITERAL_SIZE_OPTION:
+                        literalSize = Integer.parseInt(value);
+                        break;
+                    case COMMENT_RATIO_OPTION:
+                        commentRatio = Double.parseDouble(value);
+                        break;
+                    case INVALID_RATIO_OPTION:
+                        invalidRatio = Double.parseDouble(value);
+                        break;
+                    default:
+                        usage();
+                }
+            }
+        } catch (NumberFormatException e) {
+            usage();
+        }
+        if (files < 0 || globals < 0 || methods < 0 || parameters < 0 || statements < 1 || depth < 0 ||
+                literalSize < 0) {
+            usage();
+        }
+        CorpusShape shape = new CorpusShape(globals, methods, parameters, statements, depth, callDensity,
+                literalSize, commentRatio);
+        generate(directory, shape, files, seed, invalidRatio);
+    }
+
+    /**
+     * Generates a corpus into a directory, creating it if needed, and prints a summary of it.
+     *
+     * @param directory    The output directory.
+     * @param shape        The shape of the programs.
+     * @param files        The number of files.
+     * @param seed         The seed of the corpus, from which the seed of every file is drawn.
+     * @param invalidRatio The probability of a file to hold a mutation, between 0 and 1.
+     * @throws IOException If the corpus cannot be written.
+     */
+    public static void generate(Path directory, CorpusShape shape, int files, long seed, double invalidRatio)
+            throws IOException {
+        Files.createDirectories(directory);
+        List<Mutation> mutations = new ArrayList<>();
+        for (Mutation mutation : Mutation.values()) {
+            if (mutation != Mutation.NONE && mutation.appliesTo(shape)) {
+                mutations.add(mutation);
+            }
+        }
+        Random random = new Random(seed);
+        int invalidFiles = 0;
+        long bytes = 0;
+        try (Writer expected = Files.newBufferedWriter(directory.resolve(EXPECTED_RESULTS_FILE),
+                StandardCharsets.ISO_8859_1)) {
+            for (int index = 0; index < files; index++) {
+                long fileSeed = random.nextLong();
+                Mutation mutation = Mutation.NONE;
+                if (random.nextDouble() < invalidRatio && !mutations.isEmpty()) {
+                    mutation = mutations.get(random.nextInt(mutations.size()));
+                    invalidFiles++;
+                }
+                String name = String.format(FILE_NAME_FORMAT, index);
+                Path file = directory.resolve(name);
+                try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.ISO_8859_1)) {
+                    new SyntheticProgram(shape, fileSeed, mutation).write(out);
+                }
+                bytes += Files.size(file);
+                expected.write(String.format(EXPECTED_RESULT_FORMAT, name, mutation.getExpectedCode(),
+                        mutation.getDescription()));
+            }
+        }
+        System.out.printf(SUMMARY_FORMAT, files, invalidFiles, bytes, directory);
+    }
+
+    private static void usage() {
+        System.err.println(USAGE_ERROR);
+        System.exit(USAGE_EXIT_CODE);
+    }
+}
@@ -0,0 +1,386 @@
+package ex5.main.bench;
+
+import ex5.main.file_manager.VariableType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A random s-Java program of a given {@link CorpusShape}, generated from a seed, so the same seed always
+ * generates the same program.
+ * The program declares its global variables first and then its methods, whose bodies mix declarations,
+ * assignments, method calls, nested if/while blocks and comment lines. Every name is unique in the
+ * program, and a value is only ever a literal its variable accepts or an initialized variable of the
+ * same type, so the program is valid unless it is generated with a {@link Mutation}.
+ * The program is written line by line, so a program of any size is generated in constant memory, apart
+ * from its global variables and the signatures of its methods.
+ */
+public class SyntheticProgram {
+    private static final VariableType[] TYPES = VariableType.values();
+    private static final VariableType[] CONDITION_TYPES =
+            {VariableType.BOOLEAN, VariableType.INT, VariableType.DOUBLE};
+    private static final String GLOBAL_PREFIX = "g";
+    private static final String PARAMETER_PREFIX = "p";
+    private static final String LOCAL_PREFIX = "l";
+    private static final String METHOD_PREFIX = "m";
+    private static final String UNDEFINED_NAME = "undefined";
+    private static final String FINAL = "final ";
+    private static final String VOID = "void ";
+    private static final String IF = "if";
+    private static final String WHILE = "while";
+    private static final String RETURN = "return;";
+    private static final String OPEN_BLOCK = ") {";
+    private static final String CLOSE_BLOCK = "}";
+    private static final String OPEN_CONDITION = " (";
+    private static final String OR = " || ";
+    private static final String AND = " && ";
+    private static final String ASSIGN = " = ";
+    private static final String SEMICOLON = ";";
+    private static final String SPACE = " ";
+    private static final String ARGUMENT_SEPARATOR = ", ";
+    private static final String OPEN_PARENTHESIS = "(";
+    private static final String CALL_END = ");";
+    private static final String COMMENT = "// ";
+    private static final String INDENT = "    ";
+    private static final String TRUE = "true";
+    private static final String FALSE = "false";
+    private static final String DECIMAL_POINT = ".";
+    private static final char MINUS = '-';
+    private static final char DOUBLE_QUOTE = '"';
+    private static final char SINGLE_QUOTE = '\'';
+    private static final char LINE_SEPARATOR = '\n';
+    // the characters of String literals and comments, which never form a comment in the middle of a line
+    private static final String TEXT_CHARACTERS = "abcdefghijklmnopqrstuvwxyz ABCDEFGHIJKLMNOPQRSTUVWXYZ 0123456789";
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final int MAX_INT_LITERAL = 1000;
+    private static final int MAX_FRACTION = 100;
+    private static final int MAX_OPERANDS = 3;
+    private static final int COMMENT_LENGTH = 24;
+    // one in so many variables is final, one in so many values is a variable, and so on
+    private static final int FINAL_ODDS = 5;
+    private static final int UNINITIALIZED_ODDS = 4;
+    private static final int VARIABLE_VALUE_ODDS = 3;
+    private static final int WIDENED_LITERAL_ODDS = 6;
+    private static final int BLOCK_RETURN_ODDS = 8;
+    private static final int STATEMENT_KINDS = 3;
+    private static final int STATEMENT_KINDS_WITHOUT_BLOCK = 2;
+
+    private final CorpusShape shape;
+    private final Random random;
+    private final Mutation mutation;
+    private final VariableType[][] parameterTypes;
+    private final boolean[][] parameterFinals;
+    private final int mutatedMethod;
+    // the global variables, followed by the parameters and the local variables visible in the current scope
+    private final List<Variable> visible = new ArrayList<>();
+    private int localsCount = 0;
+    private Writer out;
+
+    /**
+     * Constructs a program.
+     *
+     * @param shape    The shape of the program.
+     * @param seed     The seed of the program.
+     * @param mutation The error the program holds, applicable to its shape (see {@link Mutation#appliesTo}).
+     */
+    public SyntheticProgram(CorpusShape shape, long seed, Mutation mutation) {
+        this.shape = shape;
+        this.random = new Random(seed);
+        this.mutation = mutation;
+        this.parameterTypes = new VariableType[shape.getMethods()][];
+        this.parameterFinals = new boolean[shape.getMethods()][];
+        for (int method = 0; method < shape.getMethods(); method++) {
+            int parameters = random.nextInt(shape.getParameters() + 1);
+            parameterTypes[method] = new VariableType[parameters];
+            parameterFinals[method] = new boolean[parameters];
+            for (int parameter = 0; parameter < parameters; parameter++) {
+                parameterTypes[method][parameter] = randomType();
+                parameterFinals[method][parameter] = random.nextInt(FINAL_ODDS) == 0;
+            }
+        }
+        this.mutatedMethod = shape.getMethods() == 0 ? -1 : random.nextInt(shape.getMethods());
+    }
+
+    /**
+     * Writes the program.
+     *
+     * @param out The writer the program is written to. It is neither flushed nor closed.
+     * @throws IOException If the program cannot be written.
+     */
+    public void write(Writer out) throws IOException {
+        this.out = out;
+        writeGlobals();
+        for (int method = 0; method < shape.getMethods(); method++) {
+            writeMethod(method);
+        }
+        if (mutation == Mutation.UNMATCHED_BRACE) {
+            writeLine(0, CLOSE_BLOCK);
+        }
+    }
+
+    private void writeGlobals() throws IOException {
+        for (int global = 0; global < shape.getGlobals(); global++) {
+            writeDeclaration(0, GLOBAL_PREFIX + global);
+        }
+        if (mutation == Mutation.DUPLICATE_GLOBAL) {
+            Variable global = visible.get(random.nextInt(shape.getGlobals()));
+            writeLine(0, global.type.getName() + SPACE + global.name + ASSIGN + literal(global.type) + SEMICOLON);
+        }
+        if (mutation == Mutation.MISSING_SEMICOLON) {
+            writeLine(0, VariableType.INT.getName() + SPACE + GLOBAL_PREFIX + shape.getGlobals() + ASSIGN +
+                    literal(VariableType.INT));
+        }
+    }
+
+    private void writeMethod(int method) throws IOException {
+        int methodStart = visible.size();
+        localsCount = 0;
+        StringBuilder declaration = new StringBuilder(VOID).append(METHOD_PREFIX).append(method)
+                .append(OPEN_PARENTHESIS);
+        for (int parameter = 0; parameter < parameterTypes[method].length; parameter++) {
+            Variable variable = new Variable(PARAMETER_PREFIX + parameter, parameterTypes[method][parameter],
+                    parameterFinals[method][parameter], true);
+            if (parameter > 0) {
+                declaration.append(ARGUMENT_SEPARATOR);
+            }
+            if (variable.isFinal) {
+                declaration.append(FINAL);
+            }
+            declaration.append(variable.type.getName()).append(SPACE).append(variable.name);
+            visible.add(variable);
+        }
+        writeLine(0, declaration.append(OPEN_BLOCK).toString());
+        writeStatements(1, 0);
+        if (method == mutatedMethod) {
+            writeMutation(1);
+        }
+        if (method == mutatedMethod && mutation == Mutation.MISSING_RETURN) {
+            writeDeclaration(1, LOCAL_PREFIX + localsCount++);
+        } else {
+            writeLine(1, RETURN);
+        }
+        writeLine(0, CLOSE_BLOCK);
+        truncate(methodStart);
+    }
+
+    private void writeMutation(int indent) throws IOException {
+        switch (mutation) {
+            case TYPE_MISMATCH:
+                writeLine(indent, VariableType.INT.getName() + SPACE + LOCAL_PREFIX + localsCount++ + ASSIGN +
+                        literal(VariableType.STRING) + SEMICOLON);
+                break;
+            case UNDEFINED_VARIABLE:
+                writeLine(indent, UNDEFINED_NAME + ASSIGN + literal(VariableType.INT) + SEMICOLON);
+                break;
+            case WRONG_ARGUMENT_COUNT:
+                writeCall(indent, true);
+                break;
+            case FINAL_WITHOUT_VALUE:
+                writeLine(indent, FINAL + VariableType.INT.getName() + SPACE + LOCAL_PREFIX + localsCount++ +
+                        SEMICOLON);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // writes up to the maximal number of statements, at a given nesting depth of blocks
+    private void writeStatements(int indent, int depth) throws IOException {
+        int statements = 1 + random.nextInt(shape.getStatements());
+        for (int statement = 0; statement < statements; statement++) {
+            if (shape.getMethods() > 0 && random.nextDouble() < shape.getCallDensity()) {
+                writeCall(indent, false);
+                continue;
+            }
+            int kinds = depth < shape.getDepth() ? STATEMENT_KINDS : STATEMENT_KINDS_WITHOUT_BLOCK;
+            switch (random.nextInt(kinds)) {
+                case 0:
+                    writeDeclaration(indent, LOCAL_PREFIX + localsCount++);
+                    break;
+                case 1:
+                    writeAssignment(indent);
+                    break;
+                default:
+                    writeBlock(indent, depth);
+            }
+        }
+    }
+
+    // declares a variable of a random type in the current scope, given a value unless it is not final
+    private void writeDeclaration(int indent, String name) throws IOException {
+        VariableType type = randomType();
+        boolean isFinal = random.nextInt(FINAL_ODDS) == 0;
+        boolean isInitialized = isFinal || random.nextInt(UNINITIALIZED_ODDS) != 0;
+        StringBuilder line = new StringBuilder();
+        if (isFinal) {
+            line.append(FINAL);
+        }
+        line.append(type.getName()).append(SPACE).append(name);
+        if (isInitialized) {
+            line.append(ASSIGN).append(value(type));
+        }
+        writeLine(indent, line.append(SEMICOLON).toString());
+        visible.add(new Variable(name, type, isFinal, isInitialized));
+    }
+
+    private void writeAssignment(int indent) throws IOException {
+        List<Variable> targets = new ArrayList<>();
+        for (Variable variable : visible) {
+            if (!variable.isFinal) {
+                targets.add(variable);
+            }
+        }
+        if (targets.isEmpty()) {
+            writeDeclaration(indent, LOCAL_PREFIX + localsCount++);
+            return;
+        }
+        Variable target = targets.get(random.nextInt(targets.size()));
+        writeLine(indent, target.name + ASSIGN + value(target.type) + SEMICOLON);
+    }
+
+    private void writeCall(int indent, boolean withExtraArgument) throws IOException {
+        int method = random.nextInt(shape.getMethods());
+        StringBuilder line = new StringBuilder(METHOD_PREFIX).append(method).append(OPEN_PARENTHESIS);
+        for (int parameter = 0; parameter < parameterTypes[method].length; parameter++) {
+            if (parameter > 0) {
+                line.append(ARGUMENT_SEPARATOR);
+            }
+            line.append(argument(parameterTypes[method][parameter]));
+        }
+        if (withExtraArgument) {
+            if (parameterTypes[method].length > 0) {
+                line.append(ARGUMENT_SEPARATOR);
+            }
+            line.append(argument(VariableType.INT));
+        }
+        writeLine(indent, line.append(CALL_END).toString());
+    }
+
+    private void writeBlock(int indent, int depth) throws IOException {
+        StringBuilder line = new StringBuilder(random.nextBoolean() ? IF : WHILE).append(OPEN_CONDITION);
+        int operands = 1 + random.nextInt(MAX_OPERANDS);
+        for (int operand = 0; operand < operands; operand++) {
+            if (operand > 0) {
+                line.append(random.nextBoolean() ? OR : AND);
+            }
+            line.append(conditionOperand());
+        }
+        writeLine(indent, line.append(OPEN_BLOCK).toString());
+        int blockStart = visible.size();
+        writeStatements(indent + 1, depth + 1);
+        if (random.nextInt(BLOCK_RETURN_ODDS) == 0) {
+            writeLine(indent + 1, RETURN);
+        }
+        truncate(blockStart);
+        writeLine(indent, CLOSE_BLOCK);
+    }
+
+    // a boolean, int or double literal, or an initialized visible variable of one of these types
+    private String conditionOperand() {
+        VariableType type = CONDITION_TYPES[random.nextInt(CONDITION_TYPES.length)];
+        List<Variable> candidates = visibleOfType(type);
+        if (!candidates.isEmpty() && random.nextBoolean()) {
+            return candidates.get(random.nextInt(candidates.size())).name;
+        }
+        return literal(type);
+    }
+
+    // a value of the type, as the line format of a method call accepts neither signed nor double literals
+    private String argument(VariableType type) {
+        String value = value(type);
+        if (value.charAt(0) == MINUS || (value.contains(DECIMAL_POINT) && value.charAt(0) != DOUBLE_QUOTE)) {
+            return Integer.toString(random.nextInt(MAX_INT_LITERAL + 1));
+        }
+        return value;
+    }
+
+    // an initialized visible variable of the type, or a literal the type accepts
+    private String value(VariableType type) {
+        if (random.nextInt(VARIABLE_VALUE_ODDS) == 0) {
+            List<Variable> candidates = visibleOfType(type);
+            if (!candidates.isEmpty()) {
+                return candidates.get(random.nextInt(candidates.size())).name;
+            }
+        }
+        if (type == VariableType.DOUBLE && random.nextInt(WIDENED_LITERAL_ODDS) == 0) {
+            return literal(VariableType.INT);
+        }
+        if (type == VariableType.BOOLEAN && random.nextInt(WIDENED_LITERAL_ODDS) == 0) {
+            return literal(random.nextBoolean() ? VariableType.INT : VariableType.DOUBLE);
+        }
+        return literal(type);
+    }
+
+    private String literal(VariableType type) {
+        switch (type) {
+            case INT:
+                return Integer.toString(random.nextInt(2 * MAX_INT_LITERAL + 1) - MAX_INT_LITERAL);
+            case DOUBLE:
+                return literal(VariableType.INT) + DECIMAL_POINT + random.nextInt(MAX_FRACTION);
+            case BOOLEAN:
+                return random.nextBoolean() ? TRUE : FALSE;
+            case CHAR:
+                return SINGLE_QUOTE + randomText(LETTERS, 1) + SINGLE_QUOTE;
+            default:
+                return DOUBLE_QUOTE + randomText(TEXT_CHARACTERS, shape.getLiteralSize()) + DOUBLE_QUOTE;
+        }
+    }
+
+    private List<Variable> visibleOfType(VariableType type) {
+        List<Variable> candidates = new ArrayList<>();
+        for (Variable variable : visible) {
+            if (variable.type == type && variable.isInitialized) {
+                candidates.add(variable);
+            }
+        }
+        return candidates;
+    }
+
+    private VariableType randomType() {
+        return TYPES[random.nextInt(TYPES.length)];
+    }
+
+    private String randomText(String characters, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int index = 0; index < length; index++) {
+            text.append(characters.charAt(random.nextInt(characters.length())));
+        }
+        return text.toString();
+    }
+
+    private void truncate(int size) {
+        visible.subList(size, visible.size()).clear();
+    }
+
+    // writes a line, preceded by a comment line at the comment ratio
+    private void writeLine(int indent, String text) throws IOException {
+        if (random.nextDouble() < shape.getCommentRatio()) {
+            out.write(COMMENT);
+            out.write(randomText(TEXT_CHARACTERS, COMMENT_LENGTH));
+            out.write(LINE_SEPARATOR);
+        }
+        for (int level = 0; level < indent; level++) {
+            out.write(INDENT);
+        }
+        out.write(text);
+        out.write(LINE_SEPARATOR);
+    }
+
+    // a variable visible at the current line of the program
+    private static final class Variable {
+        private final String name;
+        private final VariableType type;
+        private final boolean isFinal;
+        private final boolean isInitialized;
+
+        private Variable(String name, VariableType type, boolean isFinal, boolean isInitialized) {
+            this.name = name;
+            this.type = type;
+            this.isFinal = isFinal;
+            this.isInitialized = isInitialized;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package ex5.main.cache;
+
+import ex5.main.Sjavac;
+import ex5.main.SjavaValidator;
+import ex5.main.ValidationResult;
+import ex5.main.file_manager.SourceFile;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ex5.main.Sjavac.IO_ERROR_EXIT_CODE;
+import static ex5.main.Sjavac.SUCCESS_EXIT_CODE;
+import static ex5.main.Sjavac.SYNTAX_ERROR_EXIT_CODE;
+
+/**
+ * An on-disk cache of validation results, shared by every process validating files with the same
+ * validator, so a file that did not change since its last validation is not validated again.
+ * The results are keyed by the SHA-256 hash of the file content along with the fingerprint of the
+ * validator classes, so a result is never reused by another version of the validator. Every result is
+ * stored in a file of its own, named after its key, in a subdirectory named after the first two digits of
+ * the key; the result holds the exit code, the line number and the message {@link ex5.main.Sjavac} reports.
+ * Files that cannot be read are not cached, since their error depends on the file system and not on
+ * their content, and neither are large files that change while they are hashed or validated.
+ * The cache holds a bounded number of results. Using a result updates the modification time of its file,
+ * and when the cache grows beyond its bound, the least recently used results are removed until it holds
+ * {@value #EVICTION_RATIO} of its bound, so the cache is not scanned on every new result.
+ * The cache may be used by several threads and several processes at once: a result is written to a
+ * temporary file and moved into place atomically, so it is either missing or whole, and the eviction
+ * holds an exclusive lock on the lock file of the cache, so a single process evicts at a time.
+ */
+public class ResultCache {
+    /**
+     * The number of results a cache holds by default.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+    private static final double EVICTION_RATIO = 0.9;
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final String LOCK_FILE_NAME = "cache.lock";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String HEADER_SEPARATOR = " ";
+    private static final String NO_MESSAGE = "";
+    private static final char LINE_SEPARATOR = '\n';
+    private static final int SHARD_LENGTH = 2;
+    private static final int KEY_LENGTH = 64;
+    private static final int HEX_RADIX = 16;
+    private static final int BYTE_MASK = 0xff;
+    private static final int NIBBLE_BITS = 4;
+    private static final int NIBBLE_MASK = 0xf;
+    private static final double PERCENT = 100.0;
+    private static final String COUNTERS_FORMAT = "cache: %d hits, %d misses, %d evicted, %.1f%% hit rate%n";
+    private static final String ERROR_MAX_ENTRIES = "The cache must hold at least one result: ";
+    private static final byte[] FINGERPRINT = fingerprint();
+
+    private final Path directory;
+    private final int maxEntries;
+    private final AtomicLong entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Opens a cache directory, creating it if it does not exist.
+     *
+     * @param directory  The directory of the cache.
+     * @param maxEntries The number of results the cache holds at most.
+     * @throws IOException If the directory cannot be created or read.
+     */
+    public ResultCache(Path directory, int maxEntries) throws IOException {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException(ERROR_MAX_ENTRIES + maxEntries);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxEntries = maxEntries;
+        this.entries = new AtomicLong(listEntries().size());
+    }
+
+    /**
+     * Validates a file, reusing the cached result of the same content if there is one, and caching the
+     * result otherwise. A file smaller than {@link Sjavac#STREAMING_THRESHOLD} is read into memory once,
+     * and the same copy is hashed and validated, so the validated bytes are the hashed ones even if the
+     * file changes meanwhile. A larger file is hashed in a streaming pass and validated from the file, so
+     * it is never held in memory; its size and modification time are compared before and after, and a
+     * file that changed meanwhile is validated without the cache.
+     *
+     * @param file      The s-Java file.
+     * @param validator The validator validating the file if its result is not cached.
+     * @return The result of the validation, the same as {@link SjavaValidator#validate(Path)}.
+     */
+    public ValidationResult validate(Path file, SjavaValidator validator) {
+        byte[] content = null;
+        BasicFileAttributes snapshot = null;
+        String key;
+        // the file is opened as FileReader opens it, so it is reported with the same messages
+        try (FileInputStream input = new FileInputStream(file.toFile())) {
+            if (input.getChannel().size() < Sjavac.STREAMING_THRESHOLD) {
+                content = input.readAllBytes();
+                key = key(content);
+            } else {
+                snapshot = Files.readAttributes(file, BasicFileAttributes.class);
+                key = key(input);
+                if (!isUnchanged(file, snapshot)) {
+                    return validator.validate(file);
+                }
+            }
+        } catch (IOException e) {
+            return ValidationResult.ioError(e.getMessage());
+        }
+        Path entry = directory.resolve(key.substring(0, SHARD_LENGTH)).resolve(key);
+        ValidationResult result = read(entry);
+        if (result != null) {
+            hits.incrementAndGet();
+            return result;
+        }
+        misses.incrementAndGet();
+        if (content != null) {
+            result = validator.validate(SourceFile.wrap(ByteBuffer.wrap(content)));
+        } else {
+            result = validator.validate(file);
+            if (!isUnchanged(file, snapshot)) {
+                return result;
+            }
+        }
+        write(entry, result);
+        return result;
+    }
+
+    /**
+     * Retrieves the number of validations whose result was found in the cache.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Retrieves the number of validations whose result was not found in the cache.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Retrieves the number of results this cache removed to stay within its bound.
+     *
+     * @return The number of evicted results.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Formats the counters of the cache as a single line.
+     *
+     * @return The hits, the misses, the evicted results and the hit rate.
+     */
+    public String formatCounters() {
+        long lookups = hits.get() + misses.get();
+        return String.format(COUNTERS_FORMAT, hits.get(), misses.get(), evictions.get(),
+                lookups == 0 ? 0 : PERCENT * hits.get() / lookups);
+    }
+
+    private static String key(byte[] content) {
+        MessageDigest digest = newDigest();
+        digest.update(FINGERPRINT);
+        digest.update(content);
+        return toHex(digest.digest());
+    }
+
+    // hashes the rest of the stream a buffer at a time
+    private static String key(InputStream input) throws IOException {
+        MessageDigest digest = newDigest();
+        digest.update(FINGERPRINT);
+        try (DigestInputStream digestInput = new DigestInputStream(input, digest)) {
+            digestInput.transferTo(OutputStream.nullOutputStream());
+        }
+        return toHex(digest.digest());
+    }
+
+    // whether the file still has the size and modification time of the snapshot
+    private static boolean isUnchanged(Path file, BasicFileAttributes snapshot) {
+        try {
+            BasicFileAttributes current = Files.readAttributes(file, BasicFileAttributes.class);
+            return current.size() == snapshot.size() &&
+                    current.lastModifiedTime().equals(snapshot.lastModifiedTime());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // the cached result of an entry, or null if the entry is missing or cannot be read
+    private static ValidationResult read(Path entry) {
+        String text;
+        try {
+            text = Files.readString(entry, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // an entry evicted by another process is a miss
+            return null;
+        }
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // an entry that cannot be touched is still valid, it is only evicted earlier
+        }
+        int headerEnd = text.indexOf(LINE_SEPARATOR);
+        if (headerEnd < 0) {
+            return null;
+        }
+        String[] header = text.substring(0, headerEnd).split(HEADER_SEPARATOR);
+        String message = text.substring(headerEnd + 1);
+        try {
+            int code = Integer.parseInt(header[0]);
+            int lineNumber = Integer.parseInt(header[1]);
+            if (code == SUCCESS_EXIT_CODE) {
+                return ValidationResult.success();
+            }
+            if (code == SYNTAX_ERROR_EXIT_CODE) {
+                return ValidationResult.syntaxError(message, lineNumber);
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            // a damaged entry is replaced by the result of a new validation
+        }
+        return null;
+    }
+
+    // stores a result, unless it is an IO error; a result that cannot be stored is simply not cached
+    private void write(Path entry, ValidationResult result) {
+        if (result.getCode() == IO_ERROR_EXIT_CODE) {
+            return;
+        }
+        String text = result.getCode() + HEADER_SEPARATOR + result.getLineNumber() + LINE_SEPARATOR
+                + (result.getMessage() != null ? result.getMessage() : NO_MESSAGE);
+        try {
+            Path shard = Files.createDirectories(entry.getParent());
+            Path temporary = Files.createTempFile(shard, entry.getFileName().toString(), TEMPORARY_SUFFIX);
+            try {
+                Files.writeString(temporary, text, StandardCharsets.UTF_8);
+                move(temporary, entry);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            return;
+        }
+        if (entries.incrementAndGet() > maxEntries) {
+            evict();
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // removes the least recently used results, holding the lock of the cache; the threads of this process
+    // are excluded by the monitor, since a process cannot lock the same file twice
+    private synchronized void evict() {
+        if (entries.get() <= maxEntries) {
+            return;
+        }
+        try (FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // the lock is released when its channel is closed
+            lockChannel.lock();
+            // the results of the other processes are counted as well
+            List<Path> cached = listEntries();
+            List<FileTime> usage = new ArrayList<>(cached.size());
+            List<Integer> order = new ArrayList<>(cached.size());
+            for (int index = 0; index < cached.size(); index++) {
+                usage.add(lastUsed(cached.get(index)));
+                order.add(index);
+            }
+            order.sort(Comparator.comparing(usage::get));
+            int remaining = cached.size();
+            int target = (int) (maxEntries * EVICTION_RATIO);
+            for (int index = 0; index < order.size() && remaining > target; index++) {
+                if (Files.deleteIfExists(cached.get(order.get(index)))) {
+                    evictions.incrementAndGet();
+                }
+                remaining--;
+            }
+            entries.set(remaining);
+        } catch (IOException e) {
+            // the cache grows until the next eviction succeeds
+        }
+    }
+
+    private static FileTime lastUsed(Path entry) {
+        try {
+            return Files.getLastModifiedTime(entry);
+        } catch (IOException e) {
+            // an entry removed meanwhile is the first to evict
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    // the result files of the cache, without the temporary files being written
+    private List<Path> listEntries() throws IOException {
+        List<Path> cached = new ArrayList<>();
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path shard : shards) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(shard)) {
+                    for (Path file : files) {
+                        if (file.getFileName().toString().length() == KEY_LENGTH) {
+                            cached.add(file);
+                        }
+                    }
+                }
+            }
+        }
+        return cached;
+    }
+
+    // the hash of the validator classes: the class files of the ex5.main packages when they are loaded
+    // from a directory, or the whole archive they are loaded from
+    private static byte[] fingerprint() {
+        MessageDigest digest = newDigest();
+        try {
+            URL location = SjavaValidator.class.getProtectionDomain().getCodeSource().getLocation();
+            Path classes = Paths.get(location.toURI());
+            if (Files.isDirectory(classes)) {
+                Path packages = classes.resolve(SjavaValidator.class.getPackageName().replace('.', '/'));
+                List<Path> classFiles;
+                try (Stream<Path> files = Files.walk(packages)) {
+                    classFiles = files.filter(path -> path.toString().endsWith(CLASS_SUFFIX)).sorted()
+                            .collect(Collectors.toList());
+                }
+                for (Path file : classFiles) {
+                    digest.update(packages.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(file));
+                }
+            } else {
+                digest.update(Files.readAllBytes(classes));
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            // the classes cannot be found, so no cached result may be trusted: every run gets a key of its own
+            digest.update(Long.toString(System.nanoTime()).getBytes(StandardCharsets.UTF_8));
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte value : bytes) {
+            hex.append(Character.forDigit((value & BYTE_MASK) >> NIBBLE_BITS, HEX_RADIX));
+            hex.append(Character.forDigit(value & NIBBLE_MASK, HEX_RADIX));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,216 @@
+package ex5.main.daemon;
+
+import ex5.main.ValidationResult;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Set;
+
+/**
+ * The framing of the messages exchanged by {@link SjavacClient} and {@link SjavacDaemon} over a Unix
+ * domain socket. A connection carries any number of requests, each answered before the next one is
+ * read:
+ * - A request is a type byte, {@link #PATH_REQUEST} or {@link #SOURCE_REQUEST}, followed by a length
+ *   and as many bytes of UTF-8 text: the path of the file to validate, or the s-Java code itself.
+ * - A response is the exit code of the validation, followed by a length and as many bytes of the UTF-8
+ *   message, which is empty for a legal file.
+ * The lengths and the exit code are big-endian 4-byte integers.
+ * The default socket lies in a directory of the current user that no other user may enter, since a
+ * response may quote the validated code: $XDG_RUNTIME_DIR/sjavac, or ~/.sjavac when the variable is not
+ * set. A socket given explicitly must lie in such a directory as well. A client only trusts a socket owned
+ * by the current user.
+ */
+public class DaemonProtocol {
+    /**
+     * The type of a request holding the path of an s-Java file.
+     */
+    public static final byte PATH_REQUEST = 1;
+    /**
+     * The type of a request holding s-Java code.
+     */
+    public static final byte SOURCE_REQUEST = 2;
+    /**
+     * The largest text a frame may hold, in bytes.
+     */
+    public static final int MAX_TEXT_LENGTH = 256 * 1024 * 1024;
+    /**
+     * The system property overriding the path of the socket.
+     */
+    public static final String SOCKET_PROPERTY = "sjavac.socket";
+    private static final String RUNTIME_DIRECTORY_VARIABLE = "XDG_RUNTIME_DIR";
+    private static final String RUNTIME_DIRECTORY_NAME = "sjavac";
+    private static final String HOME_DIRECTORY_PROPERTY = "user.home";
+    private static final String HOME_DIRECTORY_NAME = ".sjavac";
+    private static final String USER_NAME_PROPERTY = "user.name";
+    private static final String DEFAULT_SOCKET_NAME = "sjavac.sock";
+    private static final String POSIX_VIEW = "posix";
+    private static final Set<PosixFilePermission> PRIVATE_DIRECTORY_PERMISSIONS =
+            PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> PRIVATE_SOCKET_PERMISSIONS =
+            PosixFilePermissions.fromString("rw-------");
+    private static final String ERROR_NOT_OWNER = "Not owned by the current user: ";
+    private static final String ERROR_NOT_PRIVATE = "Accessible by other users: ";
+    private static final String NO_MESSAGE = "";
+    private static final String ERROR_TEXT_LENGTH = "Invalid frame length: ";
+
+    /**
+     * Retrieves the address of the daemon: the {@value #SOCKET_PROPERTY} system property if it is set,
+     * and {@value #DEFAULT_SOCKET_NAME} in the private directory of the current user otherwise.
+     *
+     * @return The address of the socket.
+     */
+    public static UnixDomainSocketAddress defaultAddress() {
+        String socket = System.getProperty(SOCKET_PROPERTY);
+        if (socket != null) {
+            return UnixDomainSocketAddress.of(socket);
+        }
+        return UnixDomainSocketAddress.of(privateDirectory().resolve(DEFAULT_SOCKET_NAME));
+    }
+
+    /**
+     * Creates the directory of a socket, which only the current user may enter, or checks that the
+     * existing one is such a directory, so no other user may replace the socket or connect to it before
+     * its own permissions are set.
+     *
+     * @param socket The path of the socket.
+     * @return The directory of the socket.
+     * @throws IOException If the directory cannot be created, or is owned or accessible by another user.
+     */
+    public static Path createPrivateDirectory(Path socket) throws IOException {
+        Path directory = socket.toAbsolutePath().getParent();
+        if (isPosix()) {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PRIVATE_DIRECTORY_PERMISSIONS));
+            if (!PRIVATE_DIRECTORY_PERMISSIONS.containsAll(Files.getPosixFilePermissions(directory))) {
+                throw new IOException(ERROR_NOT_PRIVATE + directory);
+            }
+        } else {
+            Files.createDirectories(directory);
+        }
+        checkOwner(directory);
+        return directory;
+    }
+
+    /**
+     * Makes a bound socket reachable by the current user alone, where the file system supports it.
+     *
+     * @param socket The path of the socket.
+     * @throws IOException If the permissions of the socket cannot be set.
+     */
+    public static void makePrivate(Path socket) throws IOException {
+        if (isPosix()) {
+            Files.setPosixFilePermissions(socket, PRIVATE_SOCKET_PERMISSIONS);
+        }
+    }
+
+    /**
+     * Checks that a file, such as a socket or its directory, is owned by the current user, so it was not
+     * planted by another user.
+     *
+     * @param path The path of the file.
+     * @throws IOException If the file does not exist, or is owned by another user.
+     */
+    public static void checkOwner(Path path) throws IOException {
+        UserPrincipal currentUser = FileSystems.getDefault().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty(USER_NAME_PROPERTY));
+        if (!Files.getOwner(path).equals(currentUser)) {
+            throw new IOException(ERROR_NOT_OWNER + path);
+        }
+    }
+
+    // $XDG_RUNTIME_DIR/sjavac, which is private to the user by definition, or ~/.sjavac otherwise
+    private static Path privateDirectory() {
+        String runtimeDirectory = System.getenv(RUNTIME_DIRECTORY_VARIABLE);
+        if (runtimeDirectory != null && !runtimeDirectory.isEmpty()) {
+            return Paths.get(runtimeDirectory, RUNTIME_DIRECTORY_NAME);
+        }
+        return Paths.get(System.getProperty(HOME_DIRECTORY_PROPERTY), HOME_DIRECTORY_NAME);
+    }
+
+    private static boolean isPosix() {
+        return FileSystems.getDefault().supportedFileAttributeViews().contains(POSIX_VIEW);
+    }
+
+    /**
+     * Writes a request. The output is flushed.
+     *
+     * @param output The output of the connection.
+     * @param type   The type of the request.
+     * @param text   The path or the code.
+     * @throws IOException If the request cannot be written.
+     */
+    public static void writeRequest(DataOutputStream output, byte type, String text) throws IOException {
+        output.writeByte(type);
+        writeText(output, text);
+        output.flush();
+    }
+
+    /**
+     * Writes a response. The output is flushed.
+     *
+     * @param output The output of the connection.
+     * @param result The result of the validation.
+     * @throws IOException If the response cannot be written.
+     */
+    public static void writeResponse(DataOutputStream output, ValidationResult result) throws IOException {
+        output.writeInt(result.getCode());
+        writeText(output, result.getMessage() != null ? result.getMessage() : NO_MESSAGE);
+        output.flush();
+    }
+
+    /**
+     * Reads the text of a frame, following its type or its exit code.
+     *
+     * @param input The input of the connection.
+     * @return The text.
+     * @throws IOException If the text cannot be read, or its length is invalid.
+     */
+    public static String readText(DataInputStream input) throws IOException {
+        return readText(input, readLength(input));
+    }
+
+    /**
+     * Reads the length of the text of a frame, following its type or its exit code, so the reader may
+     * reserve the memory of the text before it is read by {@link #readText(DataInputStream, int)}.
+     *
+     * @param input The input of the connection.
+     * @return The length of the text, in bytes.
+     * @throws IOException If the length cannot be read, or is invalid.
+     */
+    public static int readLength(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0 || length > MAX_TEXT_LENGTH) {
+            throw new IOException(ERROR_TEXT_LENGTH + length);
+        }
+        return length;
+    }
+
+    /**
+     * Reads the text of a frame, following its length.
+     *
+     * @param input  The input of the connection.
+     * @param length The length of the text, as read by {@link #readLength(DataInputStream)}.
+     * @return The text.
+     * @throws IOException If the text cannot be read.
+     */
+    public static String readText(DataInputStream input, int length) throws IOException {
+        byte[] text = new byte[length];
+        input.readFully(text);
+        return new String(text, StandardCharsets.UTF_8);
+    }
+
+    private static void writeText(DataOutputStream output, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+}
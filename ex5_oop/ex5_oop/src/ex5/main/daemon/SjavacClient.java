@@ -0,0 +1,99 @@
+package ex5.main.daemon;
+
+import ex5.main.InputChecker;
+import ex5.main.Sjavac;
+import ex5.main.ValidationResult;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+
+import static ex5.main.Sjavac.IO_ERROR_EXIT_CODE;
+import static ex5.main.Sjavac.SUCCESS_EXIT_CODE;
+import static ex5.main.Sjavac.SYNTAX_ERROR_EXIT_CODE;
+
+/**
+ * Class: SjavacClient
+ * A drop-in replacement of {@link Sjavac}, which has the file validated by a running
+ * {@link SjavacDaemon} instead of by its own JVM. It takes the same argument, prints the same output and
+ * exits with the same code as {@link Sjavac}.
+ * The daemon is reached at {@link DaemonProtocol#defaultAddress()}; when no daemon listens there, or the
+ * socket is not owned by the current user, the file is validated in the client itself, so the result never
+ * depends on the daemon running, and no file is sent to a daemon of another user.
+ */
+public class SjavacClient {
+    /**
+     * Validates the s-Java file given as the single argument, and prints the result as {@link Sjavac} does.
+     *
+     * @param args Command-line arguments. Should contain exactly one argument: the path to the s-Java file.
+     */
+    public static void main(String[] args) {
+        InputChecker.checkInputParameter(args);
+        String path = absolutePath(args[0]);
+        ValidationResult result;
+        try {
+            UnixDomainSocketAddress address = DaemonProtocol.defaultAddress();
+            DaemonProtocol.checkOwner(address.getPath());
+            result = request(address, DaemonProtocol.PATH_REQUEST, path);
+        } catch (IOException e) {
+            result = Sjavac.validate(args[0]);
+        }
+        // the daemon reports the absolute path it was sent, where Sjavac reports the path as it was given
+        if (result.getCode() == IO_ERROR_EXIT_CODE) {
+            result = ValidationResult.ioError(result.getMessage().replace(path, args[0]));
+        }
+        System.out.println(result.getCode());
+        if (!result.isSuccess()) {
+            System.out.println(result.getMessage());
+            System.exit(result.getCode());
+        }
+    }
+
+    /**
+     * Sends a single request to a daemon, over a connection of its own.
+     *
+     * @param address The address of the daemon.
+     * @param type    The type of the request.
+     * @param text    The path or the code of the request.
+     * @return The result of the validation.
+     * @throws IOException If the daemon cannot be reached, or the connection fails.
+     */
+    public static ValidationResult request(UnixDomainSocketAddress address, byte type, String text)
+            throws IOException {
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(address);
+            DataOutputStream output = new DataOutputStream(Channels.newOutputStream(channel));
+            DataInputStream input = new DataInputStream(Channels.newInputStream(channel));
+            DaemonProtocol.writeRequest(output, type, text);
+            int code = input.readInt();
+            String message = DaemonProtocol.readText(input);
+            return toResult(code, message);
+        }
+    }
+
+    private static ValidationResult toResult(int code, String message) {
+        switch (code) {
+            case SUCCESS_EXIT_CODE:
+                return ValidationResult.success();
+            case SYNTAX_ERROR_EXIT_CODE:
+                return ValidationResult.syntaxError(message);
+            default:
+                return ValidationResult.ioError(message);
+        }
+    }
+
+    // the daemon runs in a directory of its own, so a relative path is resolved by the client
+    private static String absolutePath(String path) {
+        try {
+            return Paths.get(path).toAbsolutePath().toString();
+        } catch (InvalidPathException e) {
+            return path;
+        }
+    }
+}
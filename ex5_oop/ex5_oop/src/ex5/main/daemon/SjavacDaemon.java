@@ -0,0 +1,183 @@
+package ex5.main.daemon;
+
+import ex5.main.SjavaValidator;
+import ex5.main.Sjavac;
+import ex5.main.ValidationResult;
+import ex5.main.bench.CorpusShape;
+import ex5.main.bench.Mutation;
+import ex5.main.bench.SyntheticProgram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Class: SjavacDaemon
+ * A long-running validation server, which spares every validation the start-up of a JVM, the loading of
+ * the validator classes and the warm-up of the JIT compiler.
+ * The daemon listens on a Unix domain socket (see {@link DaemonProtocol#defaultAddress()}, or the first
+ * argument), which only the current user may connect to, since it is bound in a directory only the current
+ * user may enter: the daemon creates that directory, and refuses to start if it is owned or accessible by
+ * another user. It answers every request of
+ * {@link SjavacClient} with the exit code and the message {@link Sjavac} would print for it. Before
+ * listening, it validates a built-in corpus of generated programs, valid and invalid, so the first requests
+ * already run compiled code.
+ * Every connection is served by a thread of its own, so clients are served concurrently; the validator is
+ * shared, as it holds no state of the validated code. The requests being read or validated hold texts of at
+ * most a sixteenth of the heap together, since a request takes up to about eleven times its text while it is
+ * validated, so the connections cannot exhaust the heap with frames of up to
+ * {@link DaemonProtocol#MAX_TEXT_LENGTH} bytes: a request that does not fit waits until earlier ones are
+ * answered, and a request larger than that is validated alone. The socket file is removed when the daemon
+ * stops.
+ * Usage: SjavacDaemon [socket path]
+ */
+public class SjavacDaemon {
+    private static final String READY_FORMAT = "listening on %s, warmed up in %.0f ms%n";
+    private static final String ERROR_CONNECTION = "connection failed: ";
+    private static final String ERROR_UNKNOWN_REQUEST = "Unknown request type: ";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // the heap a request takes while it is validated, per byte of its text, for code made of declarations
+    private static final int HEAP_PER_TEXT_BYTE = 16;
+    private static final int MAX_BYTES_IN_FLIGHT =
+            (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / HEAP_PER_TEXT_BYTE);
+    private static final int WARMUP_ROUNDS = 200;
+    private static final CorpusShape WARMUP_SHAPE = new CorpusShape(10, 10, 3, 8, 2, 0.1, 8, 0.05);
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final SjavaValidator VALIDATOR = new SjavaValidator();
+    // fair, so a large request is not overtaken forever by smaller ones
+    private static final Semaphore BYTES_IN_FLIGHT = new Semaphore(MAX_BYTES_IN_FLIGHT, true);
+
+    /**
+     * Warms the validator up, and serves requests until the JVM is stopped.
+     *
+     * @param args The path of the socket, optionally.
+     * @throws IOException If the socket cannot be bound, or its directory is owned or accessible by another
+     *                     user.
+     */
+    public static void main(String[] args) throws IOException {
+        UnixDomainSocketAddress address = address(args);
+        long warmupStart = System.nanoTime();
+        warmUp();
+        double warmupTime = (System.nanoTime() - warmupStart) / NANOS_PER_MILLI;
+        // a socket file left by a daemon that did not stop cleanly would fail the bind
+        Files.deleteIfExists(address.getPath());
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(address);
+        DaemonProtocol.makePrivate(address.getPath());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+                Files.deleteIfExists(address.getPath());
+            } catch (IOException e) {
+                // the daemon is stopping either way
+            }
+        }));
+        System.out.printf(READY_FORMAT, address.getPath(), warmupTime);
+        ExecutorService connections = Executors.newCachedThreadPool();
+        while (server.isOpen()) {
+            SocketChannel client = server.accept();
+            connections.execute(() -> serve(client));
+        }
+    }
+
+    // the socket given as an argument or by the system property, or the default socket, in a private
+    // directory, which is created if it does not exist
+    private static UnixDomainSocketAddress address(String[] args) throws IOException {
+        UnixDomainSocketAddress address = args.length > 0 ?
+                UnixDomainSocketAddress.of(args[0]) : DaemonProtocol.defaultAddress();
+        DaemonProtocol.createPrivateDirectory(address.getPath());
+        return address;
+    }
+
+    /**
+     * Validates the text of a request as {@link Sjavac} would, turning every failure into a result.
+     *
+     * @param type The type of the request.
+     * @param text The path or the code of the request.
+     * @return The result of the validation.
+     */
+    public static ValidationResult validate(byte type, String text) {
+        try {
+            if (type == DaemonProtocol.PATH_REQUEST) {
+                return Sjavac.validate(text);
+            }
+            if (type == DaemonProtocol.SOURCE_REQUEST) {
+                return VALIDATOR.validate(text);
+            }
+            return ValidationResult.ioError(ERROR_UNKNOWN_REQUEST + type);
+        } catch (RuntimeException | StackOverflowError e) {
+            return ValidationResult.syntaxError(e.toString());
+        }
+    }
+
+    // answers the requests of a connection until the client closes it
+    private static void serve(SocketChannel client) {
+        try (client;
+             DataInputStream input = new DataInputStream(
+                     new BufferedInputStream(Channels.newInputStream(client), BUFFER_SIZE));
+             DataOutputStream output = new DataOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(client), BUFFER_SIZE))) {
+            while (true) {
+                byte type;
+                try {
+                    type = input.readByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                DaemonProtocol.writeResponse(output, validate(type, input));
+            }
+        } catch (IOException e) {
+            System.err.println(ERROR_CONNECTION + e.getMessage());
+        }
+    }
+
+    // reads and validates the text of a request once its bytes fit in the bytes in flight, and releases them
+    // before the response is written, since a slow client may take long to read it
+    private static ValidationResult validate(byte type, DataInputStream input) throws IOException {
+        int length = DaemonProtocol.readLength(input);
+        // a text larger than all the bytes in flight takes them all
+        int permits = Math.min(length, MAX_BYTES_IN_FLIGHT);
+        BYTES_IN_FLIGHT.acquireUninterruptibly(permits);
+        try {
+            return validate(type, DaemonProtocol.readText(input, length));
+        } finally {
+            BYTES_IN_FLIGHT.release(permits);
+        }
+    }
+
+    // validates a generated program of every mutation several times, so the JIT compiles the validator
+    private static void warmUp() {
+        List<String> corpus = new ArrayList<>();
+        long seed = 0;
+        for (Mutation mutation : Mutation.values()) {
+            StringWriter source = new StringWriter();
+            try {
+                new SyntheticProgram(WARMUP_SHAPE, seed++, mutation).write(source);
+            } catch (IOException e) {
+                // a StringWriter never fails
+                throw new IllegalStateException(e);
+            }
+            corpus.add(source.toString());
+        }
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (String source : corpus) {
+                VALIDATOR.validate(source);
+            }
+        }
+    }
+}
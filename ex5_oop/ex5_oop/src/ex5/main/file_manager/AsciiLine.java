@@ -0,0 +1,56 @@
+package ex5.main.file_manager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A line of an ASCII source file, viewed as characters directly over the bytes of the file:
+ * only the offset and the length of the line are kept, and the bytes are copied into a String
+ * only by {@link #toString()}.
+ */
+public class AsciiLine implements CharSequence {
+    private final ByteBuffer content;
+    private final int offset;
+    private final int length;
+
+    /**
+     * Constructs a view over a line of an ASCII file.
+     *
+     * @param content The bytes of the whole file.
+     * @param offset  The index of the first byte of the line.
+     * @param length  The number of bytes in the line.
+     */
+    public AsciiLine(ByteBuffer content, int offset, int length) {
+        this.content = content;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (char) content.get(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException(start);
+        }
+        return new AsciiLine(content, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length];
+        content.get(offset, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
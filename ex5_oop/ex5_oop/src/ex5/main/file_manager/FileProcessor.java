@@ -1,110 +1,221 @@
 package ex5.main.file_manager;
 
-import ex5.main.Variable;
+import ex5.main.file_manager.events.PhaseEvent;
 import ex5.main.file_manager.functions.FunctionBodyValidator;
 import ex5.main.file_manager.functions.FunctionNames;
 import ex5.main.file_manager.functions.FunctionSyntaxException;
+import ex5.main.file_manager.functions.MethodMemo;
+import ex5.main.file_manager.functions.MethodTable;
 import ex5.main.file_manager.global_variables.GlobalVariables;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
 
-import static ex5.main.Sjavac.SYNTAX_ERROR_EXIT_CODE;
 /**
  * Processes the lines of a file, checks for line validity,
  * and handles comments and blank lines.
+ * Every step is recorded as a {@link PhaseEvent} when a flight recording enables it.
  */
 public class FileProcessor{
-    private static final String ENPTYROW_OR_ERROR_PATTERN = "//.*|\\s*";
     //    constants
-    private final List<String> linesArray;
+    private final List<CharSequence> linesArray;
+    private final int[] lineNumbers;
+    private final List<LineRecord> records;
+    private final SymbolInterner symbols = new SymbolInterner();
     private int linesNumber = 0;
-    private HashMap<String, Variable<?>> globalMap = new HashMap<>();
-    private HashMap<String, List<Map<String, Variable<Object>>>> functionsMap = new HashMap<>();
+    private SymbolTable globalSymbols = new SymbolTable();
+    private MethodTable methods = new MethodTable();
 
     /**
      * Constructs a FileProcessor object.
      *
      * @param bufferedReader A BufferedReader instance used to read the lines of the file.
      * @throws IOException If an I/O error occurs during file reading.
+     * @throws SyntaxException If one of the lines has an invalid format.
      */
-    public FileProcessor(BufferedReader bufferedReader) throws IOException {
-        this.linesArray = new ArrayList<String>();
-        String line;
+    public FileProcessor(BufferedReader bufferedReader) throws IOException, SyntaxException {
+        this(readLines(bufferedReader));
+    }
 
-        while((line = bufferedReader.readLine()) != null) {
-            linesNumber++;
-            linesArray.add(line);
-        }
+    /**
+     * Constructs a FileProcessor object over lines that were already read, such as the lines of a
+     * {@link SourceFile}. The lines are kept as they are, and are not copied.
+     *
+     * @param sourceLines All the lines of the file, without their line terminators.
+     * @throws SyntaxException If one of the lines has an invalid format.
+     */
+    public FileProcessor(List<? extends CharSequence> sourceLines) throws SyntaxException {
+        this.linesArray = new ArrayList<CharSequence>();
+        this.lineNumbers = new int[sourceLines.size()];
 
-        // remove empty or comment lines
-        Pattern pattern = Pattern.compile(ENPTYROW_OR_ERROR_PATTERN);
-        linesArray.removeIf(line1 -> pattern.matcher(line1).matches());
+        // skip empty or comment lines, keeping the number of every code line in the file
+        int lineNumber = 0;
+        for (CharSequence line : sourceLines) {
+            lineNumber++;
+            if (!RowValidnessClass.isEmptyOrComment(line)) {
+                lineNumbers[linesArray.size()] = lineNumber;
+                linesArray.add(line);
+            }
+        }
         linesNumber = linesArray.size();
-        preprocessCheckLineValidity();
+        this.records = new ArrayList<LineRecord>(linesNumber);
+        PatternRegistry.setPhase(ValidationPhase.LINE_FORMAT);
+        PhaseEvent event = beginPhaseEvent();
+        try {
+            preprocessCheckLineValidity();
+        } finally {
+            commitPhaseEvent(event, ValidationPhase.LINE_FORMAT);
+        }
     }
 
     /**
-     * Checks the validity of all lines in the file.
+     * Checks the validity of all lines in the file, and parses every line once into the
+     * {@link LineRecord} shared by the following validation phases.
      *
+     * @throws SyntaxException If one of the lines has an invalid format.
      */
-    public void preprocessCheckLineValidity() {
-        String line;
+    public void preprocessCheckLineValidity() throws SyntaxException {
+        CharSequence line;
+        records.clear();
         for (int lineIndex = 0; lineIndex < linesNumber; lineIndex++) {
             line = linesArray.get(lineIndex);
             try {
-                RowValidnessClass.checkSuffixes(line, lineIndex);
-                RowValidnessClass.checkMiddleComments(line, lineIndex);
-                RowValidnessClass.checkLineFormat(line, lineIndex);
+                LineKind kind = RowValidnessClass.checkLine(line, lineIndex, lineNumbers[lineIndex]);
+                records.add(LineParser.parse(line, kind, lineIndex, lineNumbers[lineIndex], symbols));
             } catch (SyntaxException e) {
-                System.out.println(SYNTAX_ERROR_EXIT_CODE);
-                System.out.println(e.getMessage());
-                System.exit(SYNTAX_ERROR_EXIT_CODE);
+                throw e.atLine(lineNumbers[lineIndex]);
             }
         }
     }
+
+    /**
+     * Retrieves the number of code lines of the file, which every phase processes.
+     *
+     * @return The number of lines of the file, blank and comment lines excluded.
+     */
+    public int getLinesNumber() {
+        return linesNumber;
+    }
+
+    private static List<String> readLines(BufferedReader bufferedReader) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        String line;
+        while((line = bufferedReader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
     /**
      * Checks the validity of global variables.
      *
+     * @throws SyntaxException If a global variable declaration is invalid.
      */
-    public void checkGlobalVariables() {
-        GlobalVariables globalVariables = new GlobalVariables(linesArray);
+    public void checkGlobalVariables() throws SyntaxException {
+        PatternRegistry.setPhase(ValidationPhase.GLOBAL_VARIABLES);
+        PhaseEvent event = beginPhaseEvent();
         try {
+            GlobalVariables globalVariables = new GlobalVariables(records);
             globalVariables.validAndCreateGlobalMap();
+            this.globalSymbols = globalVariables.getGlobalSymbols();
+        } finally {
+            commitPhaseEvent(event, ValidationPhase.GLOBAL_VARIABLES);
         }
-        catch (SyntaxException e) {
-            System.out.println(SYNTAX_ERROR_EXIT_CODE);
-            System.out.println(e.getMessage());
-            System.exit(SYNTAX_ERROR_EXIT_CODE);
-        }
-        this.globalMap = globalVariables.getGlobalMap();
     }
     /**
      * Checks the validity of functions names.
      *
+     * @throws FunctionSyntaxException If a function declaration is invalid.
      */
-    public void checkFunctionNames() {
-        FunctionNames functionNames = new FunctionNames(linesArray);
+    public void checkFunctionNames() throws FunctionSyntaxException {
+        PatternRegistry.setPhase(ValidationPhase.FUNCTION_NAMES);
+        PhaseEvent event = beginPhaseEvent();
         try {
+            FunctionNames functionNames = new FunctionNames(records);
             functionNames.getAllFunctionsNames();
+            this.methods = functionNames.getMethods();
+        } finally {
+            commitPhaseEvent(event, ValidationPhase.FUNCTION_NAMES);
         }
-        catch (FunctionSyntaxException e) {
-            System.out.println(SYNTAX_ERROR_EXIT_CODE);
-            System.out.println(e.getMessage());
-            System.exit(SYNTAX_ERROR_EXIT_CODE);
-        }
-        this.functionsMap = functionNames.getFunctionsMap();
     }
     /**
      * Checks the validity functio body.
      *
+     * @throws FunctionSyntaxException If one of the function bodies is invalid.
      */
-    public void checkFunctionsBody() {
-        FunctionBodyValidator functionBodyValidator = new FunctionBodyValidator(linesArray,
-                                                                                globalMap,
-                                                                                functionsMap);
-        functionBodyValidator.processAllMethods();
+    public void checkFunctionsBody() throws FunctionSyntaxException {
+        checkFunctionsBody((MethodMemo) null);
+    }
+
+    /**
+     * Checks the validity of the function bodies as {@link #checkFunctionsBody()} does, reusing the
+     * outcomes of the methods the memo already holds.
+     *
+     * @param memo The memo of the method outcomes, or null to validate every method.
+     * @throws FunctionSyntaxException If one of the function bodies is invalid.
+     */
+    public void checkFunctionsBody(MethodMemo memo) throws FunctionSyntaxException {
+        PatternRegistry.setPhase(ValidationPhase.FUNCTION_BODIES);
+        PhaseEvent event = beginPhaseEvent();
+        try {
+            FunctionBodyValidator functionBodyValidator = new FunctionBodyValidator(records,
+                                                                                    globalSymbols,
+                                                                                    methods,
+                                                                                    memo);
+            functionBodyValidator.processAllMethods();
+        } finally {
+            commitPhaseEvent(event, ValidationPhase.FUNCTION_BODIES);
+        }
+    }
+
+    /**
+     * Checks the validity of the function bodies, validating the methods concurrently on the given pool.
+     * Reports the same error as {@link #checkFunctionsBody()}.
+     *
+     * @param pool The pool validating the methods.
+     * @throws FunctionSyntaxException If one of the function bodies is invalid.
+     */
+    public void checkFunctionsBody(ForkJoinPool pool) throws FunctionSyntaxException {
+        checkFunctionsBody(pool, null);
+    }
+
+    /**
+     * Checks the validity of the function bodies concurrently as {@link #checkFunctionsBody(ForkJoinPool)}
+     * does, reusing the outcomes of the methods the memo already holds.
+     *
+     * @param pool The pool validating the methods.
+     * @param memo The memo of the method outcomes, or null to validate every method.
+     * @throws FunctionSyntaxException If one of the function bodies is invalid.
+     */
+    public void checkFunctionsBody(ForkJoinPool pool, MethodMemo memo) throws FunctionSyntaxException {
+        PatternRegistry.setPhase(ValidationPhase.FUNCTION_BODIES);
+        PhaseEvent event = beginPhaseEvent();
+        try {
+            FunctionBodyValidator functionBodyValidator = new FunctionBodyValidator(records,
+                                                                                    globalSymbols,
+                                                                                    methods,
+                                                                                    memo);
+            functionBodyValidator.processAllMethods(pool);
+        } finally {
+            commitPhaseEvent(event, ValidationPhase.FUNCTION_BODIES);
+        }
+    }
+
+    private static PhaseEvent beginPhaseEvent() {
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    // the fields are only set when the event is recorded
+    private void commitPhaseEvent(PhaseEvent event, ValidationPhase phase) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase.name();
+            event.lines = linesNumber;
+            event.commit();
+        }
     }
 }
\ No newline at end of file
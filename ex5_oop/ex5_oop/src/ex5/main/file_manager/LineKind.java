@@ -0,0 +1,39 @@
+package ex5.main.file_manager;
+
+/**
+ * The line formats accepted by the s-Java grammar, as recognized by {@link SJavaValidator#classify}.
+ */
+public enum LineKind {
+    /**
+     * A variable declaration, optionally final and with several variables.
+     */
+    DECLARATION,
+    /**
+     * An assignment of one or more variables.
+     */
+    ASSIGNMENT,
+    /**
+     * The opening line of an if or while block.
+     */
+    CONDITION,
+    /**
+     * The opening line of a method declaration.
+     */
+    METHOD_DECLARATION,
+    /**
+     * A method call statement.
+     */
+    METHOD_CALL,
+    /**
+     * A closing brace.
+     */
+    END_OF_SCOPE,
+    /**
+     * A return statement.
+     */
+    RETURN,
+    /**
+     * A line that matches none of the formats above.
+     */
+    INVALID
+}
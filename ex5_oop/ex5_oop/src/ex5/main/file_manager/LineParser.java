@@ -0,0 +1,276 @@
+package ex5.main.file_manager;
+
+import java.util.Arrays;
+
+import static ex5.main.file_manager.LineRecord.NO_SPAN;
+import static ex5.main.file_manager.SymbolInterner.NO_SYMBOL;
+
+/**
+ * Parses a single s-Java line, whose format was already recognized by {@link SJavaValidator#classify},
+ * into a {@link LineRecord}. Every line is parsed exactly once, and the validation phases read the
+ * declared types, names, values, arguments and condition operands from the record.
+ * The names of the line, and the values and operands that may be names, are interned while the line is
+ * parsed, so the validators compare names by their ids.
+ */
+public class LineParser {
+    private static final String[] TYPES = {"int", "double", "boolean", "char", "String"};
+    private static final String FINAL = "final";
+    private static final char COMMA = ',';
+    private static final char EQUALS = '=';
+    private static final char OPEN_PARENTHESIS = '(';
+    private static final char CLOSE_PARENTHESIS = ')';
+    private static final char SEMICOLON = ';';
+    private static final char TRIM_LIMIT = ' ';
+    private static final String DECLARATION_VALUE_DELIMITERS = ",;";
+    private static final String CONDITION_DELIMITER = ")";
+    private static final String[] LOGICAL_OPERATORS = {"||", "&&"};
+    private static final int OPERATOR_LENGTH = 2;
+    private static final int NOT_FOUND = -1;
+    private static final int INITIAL_SPANS_LENGTH = 4;
+    private static final int SPAN_SIZE = 2;
+    private static final int GROWTH_FACTOR = 2;
+
+    /**
+     * Parses a line into its typed record.
+     *
+     * @param line       The text of the line.
+     * @param kind       The format of the line, as recognized by {@link SJavaValidator#classify}.
+     * @param lineIndex  The index of the line among the code lines.
+     * @param lineNumber The 1-based number of the line in the source file.
+     * @param symbols    The interner of the names of the file.
+     * @return The record of the line.
+     */
+    public static LineRecord parse(CharSequence line, LineKind kind, int lineIndex, int lineNumber,
+                                   SymbolInterner symbols) {
+        switch (kind) {
+            case DECLARATION:
+                return parseDeclaration(line, lineIndex, lineNumber, symbols);
+            case ASSIGNMENT:
+                return parseAssignment(line, lineIndex, lineNumber, symbols);
+            case METHOD_DECLARATION:
+                return parseMethodDeclaration(line, lineIndex, lineNumber, symbols);
+            case METHOD_CALL:
+                return parseMethodCall(line, lineIndex, lineNumber, symbols);
+            case CONDITION:
+                return parseCondition(line, lineIndex, lineNumber, symbols);
+            default:
+                return new LineRecord(kind, line, lineIndex, lineNumber, null, false, NO_SPAN, NO_SPAN,
+                        NO_SYMBOL, null, null, null, null, null);
+        }
+    }
+
+    private static LineRecord parseDeclaration(CharSequence line, int lineIndex, int lineNumber,
+                                               SymbolInterner symbols) {
+        LineTokenizer tokenizer = new LineTokenizer(line);
+        tokenizer.next();
+        boolean isFinal = tokenizer.tokenEquals(FINAL);
+        if (isFinal) {
+            tokenizer.next();
+        }
+        VariableType type = VariableType.of(tokenizer.tokenAmong(TYPES));
+        int[] names = new int[INITIAL_SPANS_LENGTH];
+        int[] values = new int[INITIAL_SPANS_LENGTH];
+        int size = 0;
+        do {
+            tokenizer.next();
+            names = appendSpan(names, size, tokenizer.tokenStart(), tokenizer.tokenEnd());
+            tokenizer.next();
+            if (tokenizer.isPunctuation(EQUALS)) {
+                int valueStart = tokenizer.position();
+                tokenizer.skipTo(DECLARATION_VALUE_DELIMITERS);
+                values = appendTrimmedSpan(values, size, line, valueStart, tokenizer.position());
+                tokenizer.next();
+            } else {
+                values = appendSpan(values, size, NO_SPAN, NO_SPAN);
+            }
+            size += SPAN_SIZE;
+        } while (tokenizer.isPunctuation(COMMA));
+        return new LineRecord(LineKind.DECLARATION, line, lineIndex, lineNumber, type, isFinal, NO_SPAN,
+                NO_SPAN, NO_SYMBOL, Arrays.copyOf(names, size), Arrays.copyOf(values, size), null, null,
+                internSpans(line, names, values, size, symbols));
+    }
+
+    private static LineRecord parseAssignment(CharSequence line, int lineIndex, int lineNumber,
+                                              SymbolInterner symbols) {
+        LineTokenizer tokenizer = new LineTokenizer(line);
+        int[] names = new int[INITIAL_SPANS_LENGTH];
+        int[] values = new int[INITIAL_SPANS_LENGTH];
+        int size = 0;
+        do {
+            tokenizer.next();
+            names = appendSpan(names, size, tokenizer.tokenStart(), tokenizer.tokenEnd());
+            tokenizer.next();
+            tokenizer.next();
+            values = appendSpan(values, size, tokenizer.tokenStart(), tokenizer.tokenEnd());
+            size += SPAN_SIZE;
+            tokenizer.next();
+        } while (tokenizer.isPunctuation(COMMA));
+        return new LineRecord(LineKind.ASSIGNMENT, line, lineIndex, lineNumber, null, false, NO_SPAN, NO_SPAN,
+                NO_SYMBOL, Arrays.copyOf(names, size), Arrays.copyOf(values, size), null, null,
+                internSpans(line, names, values, size, symbols));
+    }
+
+    private static LineRecord parseMethodDeclaration(CharSequence line, int lineIndex, int lineNumber,
+                                                     SymbolInterner symbols) {
+        LineTokenizer tokenizer = new LineTokenizer(line);
+        tokenizer.next();
+        tokenizer.next();
+        int nameStart = tokenizer.tokenStart();
+        int nameEnd = tokenizer.tokenEnd();
+        tokenizer.next();
+        int[] names = new int[INITIAL_SPANS_LENGTH];
+        VariableType[] types = new VariableType[INITIAL_SPANS_LENGTH];
+        boolean[] finals = new boolean[INITIAL_SPANS_LENGTH];
+        int count = 0;
+        tokenizer.next();
+        while (!tokenizer.isPunctuation(CLOSE_PARENTHESIS)) {
+            if (count == types.length) {
+                types = Arrays.copyOf(types, GROWTH_FACTOR * count);
+                finals = Arrays.copyOf(finals, GROWTH_FACTOR * count);
+            }
+            finals[count] = tokenizer.tokenEquals(FINAL);
+            if (finals[count]) {
+                tokenizer.next();
+            }
+            types[count] = VariableType.of(tokenizer.tokenAmong(TYPES));
+            tokenizer.next();
+            names = appendSpan(names, SPAN_SIZE * count, tokenizer.tokenStart(), tokenizer.tokenEnd());
+            count++;
+            tokenizer.next();
+            if (tokenizer.isPunctuation(COMMA)) {
+                tokenizer.next();
+            }
+        }
+        return new LineRecord(LineKind.METHOD_DECLARATION, line, lineIndex, lineNumber, null, false,
+                nameStart, nameEnd, symbols.intern(line, nameStart, nameEnd),
+                Arrays.copyOf(names, SPAN_SIZE * count), null,
+                Arrays.copyOf(types, count), Arrays.copyOf(finals, count),
+                internSpans(line, names, SPAN_SIZE * count, symbols));
+    }
+
+    private static LineRecord parseMethodCall(CharSequence line, int lineIndex, int lineNumber,
+                                              SymbolInterner symbols) {
+        LineTokenizer tokenizer = new LineTokenizer(line);
+        tokenizer.next();
+        int nameStart = tokenizer.tokenStart();
+        int nameEnd = tokenizer.tokenEnd();
+        tokenizer.next();
+        int[] arguments = new int[INITIAL_SPANS_LENGTH];
+        int size = 0;
+        tokenizer.next();
+        boolean isSplit = true;
+        if (!tokenizer.isPunctuation(CLOSE_PARENTHESIS)) {
+            while (isSplit) {
+                TokenType argumentType = tokenizer.tokenType();
+                isSplit = argumentType != TokenType.PUNCTUATION && argumentType != TokenType.INVALID &&
+                        argumentType != TokenType.END;
+                arguments = appendSpan(arguments, size, tokenizer.tokenStart(), tokenizer.tokenEnd());
+                size += SPAN_SIZE;
+                tokenizer.next();
+                if (tokenizer.isPunctuation(CLOSE_PARENTHESIS)) {
+                    break;
+                }
+                isSplit &= tokenizer.isPunctuation(COMMA);
+                tokenizer.next();
+            }
+        }
+        // a quoted argument that contains quotes cannot be split into arguments
+        tokenizer.next();
+        isSplit &= tokenizer.isPunctuation(SEMICOLON) && tokenizer.next() == TokenType.END;
+        return new LineRecord(LineKind.METHOD_CALL, line, lineIndex, lineNumber, null, false,
+                nameStart, nameEnd, symbols.intern(line, nameStart, nameEnd), null,
+                isSplit ? Arrays.copyOf(arguments, size) : null, null, null,
+                isSplit ? internSpans(line, arguments, size, symbols) : null);
+    }
+
+    private static LineRecord parseCondition(CharSequence line, int lineIndex, int lineNumber,
+                                             SymbolInterner symbols) {
+        int conditionStart = indexOf(line, OPEN_PARENTHESIS, 0) + 1;
+        int conditionEnd = indexOf(line, CLOSE_PARENTHESIS, conditionStart);
+        int[] operands = new int[INITIAL_SPANS_LENGTH];
+        int size = 0;
+        int operandStart = conditionStart;
+        int index = conditionStart;
+        while (index < conditionEnd) {
+            if (isLogicalOperator(line, index, conditionEnd)) {
+                operands = appendTrimmedSpan(operands, size, line, operandStart, index);
+                size += SPAN_SIZE;
+                index += OPERATOR_LENGTH;
+                operandStart = index;
+            } else {
+                index++;
+            }
+        }
+        operands = appendTrimmedSpan(operands, size, line, operandStart, conditionEnd);
+        size += SPAN_SIZE;
+        int[] condition = appendTrimmedSpan(new int[SPAN_SIZE], 0, line, conditionStart, conditionEnd);
+        return new LineRecord(LineKind.CONDITION, line, lineIndex, lineNumber, null, false, condition[0],
+                condition[1], NO_SYMBOL, null, Arrays.copyOf(operands, size), null, null,
+                internSpans(line, operands, size, symbols));
+    }
+
+    private static int[] internSpans(CharSequence line, int[] spans, int size, SymbolInterner symbols) {
+        int[] spanSymbols = new int[size / SPAN_SIZE];
+        internSpans(line, spans, size, spanSymbols, 0, symbols);
+        return spanSymbols;
+    }
+
+    // interns the names followed by the values, into a single array
+    private static int[] internSpans(CharSequence line, int[] names, int[] values, int size,
+                                     SymbolInterner symbols) {
+        // one id per name and one per value
+        int[] spanSymbols = new int[SPAN_SIZE * (size / SPAN_SIZE)];
+        internSpans(line, names, size, spanSymbols, 0, symbols);
+        internSpans(line, values, size, spanSymbols, size / SPAN_SIZE, symbols);
+        return spanSymbols;
+    }
+
+    // interns the spans that may be names, and gives NO_SYMBOL to the missing values and the literals
+    private static void internSpans(CharSequence line, int[] spans, int size, int[] spanSymbols, int offset,
+                                    SymbolInterner symbols) {
+        for (int index = 0; index < size / SPAN_SIZE; index++) {
+            int start = spans[SPAN_SIZE * index];
+            int end = spans[SPAN_SIZE * index + 1];
+            spanSymbols[offset + index] = start != NO_SPAN && SJavaValidator.isVariableName(line, start, end) ?
+                    symbols.intern(line, start, end) : NO_SYMBOL;
+        }
+    }
+
+    private static boolean isLogicalOperator(CharSequence line, int index, int end) {
+        for (String operator : LOGICAL_OPERATORS) {
+            if (index + OPERATOR_LENGTH <= end && line.charAt(index) == operator.charAt(0) &&
+                    line.charAt(index + 1) == operator.charAt(1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOf(CharSequence line, char character, int fromIndex) {
+        for (int index = fromIndex; index < line.length(); index++) {
+            if (line.charAt(index) == character) {
+                return index;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private static int[] appendTrimmedSpan(int[] spans, int size, CharSequence line, int start, int end) {
+        while (start < end && line.charAt(start) <= TRIM_LIMIT) {
+            start++;
+        }
+        while (end > start && line.charAt(end - 1) <= TRIM_LIMIT) {
+            end--;
+        }
+        return appendSpan(spans, size, start, end);
+    }
+
+    private static int[] appendSpan(int[] spans, int size, int start, int end) {
+        if (size + SPAN_SIZE > spans.length) {
+            spans = Arrays.copyOf(spans, GROWTH_FACTOR * spans.length);
+        }
+        spans[size] = start;
+        spans[size + 1] = end;
+        return spans;
+    }
+}
@@ -0,0 +1,309 @@
+package ex5.main.file_manager;
+
+/**
+ * A compact typed record of a single s-Java line, produced once by {@link LineParser} and shared by all
+ * the validation phases instead of the raw text.
+ * The parts of the line are kept as spans (start and end indices) into the text, so a part is only
+ * turned into a String by the phase that needs it:
+ * - Declarations: the declared type, the final flag, and every declared name with its optional value.
+ * - Assignments: every assigned name with its value.
+ * - Method declarations: the method name, and every parameter with its type and final flag.
+ * - Method calls: the called method name and its arguments.
+ * - If/while: the condition and its operands (split by || and &&).
+ * Every name, and every value or operand that may be a name, is also kept as its interned id
+ * (see {@link SymbolInterner}), so the validators look variables up without the text.
+ */
+public class LineRecord {
+    /**
+     * Marks a missing span, such as the value of a declared variable that is not initialized.
+     */
+    public static final int NO_SPAN = -1;
+    private static final int SPAN_SIZE = 2;
+
+    private final LineKind kind;
+    private final CharSequence text;
+    private final int lineIndex;
+    private final int lineNumber;
+    private final VariableType type;
+    private final boolean isFinal;
+    private final int targetStart;
+    private final int targetEnd;
+    private final int targetSymbol;
+    private final int[] nameSpans;
+    private final int[] valueSpans;
+    // the ids of the names, followed by the ids of the values or operands
+    private final int[] symbols;
+    private final VariableType[] parameterTypes;
+    private final boolean[] parameterFinals;
+
+    /**
+     * Constructs a LineRecord. Use {@link LineParser#parse} to create records from lines.
+     *
+     * @param kind            The format of the line.
+     * @param text            The text of the line, possibly a view over the source file.
+     * @param lineIndex       The index of the line among the code lines (comments and blank lines skipped).
+     * @param lineNumber      The 1-based number of the line in the source file.
+     * @param type            The declared type of a declaration, or null.
+     * @param isFinal         Whether a declaration is final.
+     * @param targetStart     The start of the method name of a method declaration or call, or of the
+     *                        condition of an if/while; {@link #NO_SPAN} otherwise.
+     * @param targetEnd       The end of the method name or the condition.
+     * @param targetSymbol    The interned id of the method name, or {@link SymbolInterner#NO_SYMBOL}.
+     * @param nameSpans       The spans of the declared or assigned names, or of the parameter names.
+     * @param valueSpans      The spans of the values of the names, the call arguments or the condition
+     *                        operands; null for a call whose arguments cannot be split.
+     * @param parameterTypes  The types of the parameters of a method declaration, or null.
+     * @param parameterFinals The final flags of the parameters of a method declaration, or null.
+     * @param symbols         The interned ids of the names, one per name span, followed by the ids of
+     *                        the values or operands, one per value span, where a value that is not a
+     *                        name is {@link SymbolInterner#NO_SYMBOL}; null for a line without spans.
+     */
+    LineRecord(LineKind kind, CharSequence text, int lineIndex, int lineNumber, VariableType type,
+               boolean isFinal, int targetStart, int targetEnd, int targetSymbol, int[] nameSpans,
+               int[] valueSpans, VariableType[] parameterTypes, boolean[] parameterFinals, int[] symbols) {
+        this.kind = kind;
+        this.text = text;
+        this.lineIndex = lineIndex;
+        this.lineNumber = lineNumber;
+        this.type = type;
+        this.isFinal = isFinal;
+        this.targetStart = targetStart;
+        this.targetEnd = targetEnd;
+        this.targetSymbol = targetSymbol;
+        this.nameSpans = nameSpans;
+        this.valueSpans = valueSpans;
+        this.parameterTypes = parameterTypes;
+        this.parameterFinals = parameterFinals;
+        this.symbols = symbols;
+    }
+
+    /**
+     * Retrieves the format of the line.
+     *
+     * @return The kind of the line.
+     */
+    public LineKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Retrieves the original text of the line.
+     *
+     * @return The text of the line.
+     */
+    public String getText() {
+        return text.toString();
+    }
+
+    /**
+     * Retrieves the index of the line among the code lines, as reported in error messages.
+     *
+     * @return The index of the line, comments and blank lines skipped.
+     */
+    public int getLineIndex() {
+        return lineIndex;
+    }
+
+    /**
+     * Retrieves the number of the line in the source file.
+     *
+     * @return The 1-based line number.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Retrieves the declared type of a declaration.
+     *
+     * @return The type of the declared variables, or null if the line is not a declaration.
+     */
+    public VariableType getType() {
+        return type;
+    }
+
+    /**
+     * Checks whether a declaration is final.
+     *
+     * @return true if the declared variables are final, false otherwise.
+     */
+    public boolean isFinal() {
+        return isFinal;
+    }
+
+    /**
+     * Retrieves the method name of a method declaration or a method call.
+     *
+     * @return The method name, or null if the line declares or calls no method.
+     */
+    public String getMethodName() {
+        return kind == LineKind.METHOD_DECLARATION || kind == LineKind.METHOD_CALL ? target() : null;
+    }
+
+    /**
+     * Retrieves the interned id of the method name of a method declaration or a method call.
+     *
+     * @return The id of the method name, or {@link SymbolInterner#NO_SYMBOL} if the line declares or
+     * calls no method.
+     */
+    public int getMethodSymbol() {
+        return targetSymbol;
+    }
+
+    /**
+     * Retrieves the condition of an if/while line, trimmed.
+     *
+     * @return The condition, or null if the line is not an if/while line.
+     */
+    public String getCondition() {
+        return kind == LineKind.CONDITION ? target() : null;
+    }
+
+    /**
+     * Retrieves the number of names in the line: the declared or assigned variables, or the parameters.
+     *
+     * @return The number of names.
+     */
+    public int getNamesCount() {
+        return nameSpans == null ? 0 : nameSpans.length / SPAN_SIZE;
+    }
+
+    /**
+     * Retrieves a declared or assigned variable name, or a parameter name.
+     *
+     * @param index The index of the name.
+     * @return The name.
+     */
+    public String getName(int index) {
+        return span(nameSpans, index);
+    }
+
+    /**
+     * Retrieves the interned id of a declared or assigned variable name, or of a parameter name.
+     *
+     * @param index The index of the name.
+     * @return The id of the name, or {@link SymbolInterner#NO_SYMBOL} if it is not a valid name.
+     */
+    public int getNameSymbol(int index) {
+        return symbols[index];
+    }
+
+    /**
+     * Retrieves the value given to a declared or assigned variable, trimmed.
+     *
+     * @param index The index of the variable.
+     * @return The value, or null if the variable is declared without a value.
+     */
+    public String getValue(int index) {
+        return span(valueSpans, index);
+    }
+
+    /**
+     * Classifies the value given to a declared or assigned variable, an argument of a method call or an
+     * operand of an if/while condition as a literal, scanning it in the line without turning it into a
+     * String (see {@link LiteralClassifier}).
+     *
+     * @param index The index of the value or operand.
+     * @return The type of the literal, or null if the value is missing or is not a valid literal.
+     */
+    public VariableType getValueLiteralType(int index) {
+        int start = valueSpans[SPAN_SIZE * index];
+        if (start == NO_SPAN) {
+            return null;
+        }
+        return LiteralClassifier.classify(text, start, valueSpans[SPAN_SIZE * index + 1]);
+    }
+
+    /**
+     * Checks whether a declared variable is given a value, without turning the value into a String.
+     *
+     * @param index The index of the variable.
+     * @return true if the variable is declared with a value, false otherwise.
+     */
+    public boolean hasValue(int index) {
+        return valueSpans[SPAN_SIZE * index] != NO_SPAN;
+    }
+
+    /**
+     * Retrieves the interned id of the value given to a declared or assigned variable, or of an
+     * argument of a method call, or of an operand of an if/while condition.
+     *
+     * @param index The index of the value or operand.
+     * @return The id of the value, or {@link SymbolInterner#NO_SYMBOL} if the value is missing or is
+     * not a name, such as a literal.
+     */
+    public int getValueSymbol(int index) {
+        return symbols[getNamesCount() + index];
+    }
+
+    /**
+     * Retrieves the type of a parameter of a method declaration.
+     *
+     * @param index The index of the parameter.
+     * @return The type of the parameter.
+     */
+    public VariableType getParameterType(int index) {
+        return parameterTypes[index];
+    }
+
+    /**
+     * Checks whether a parameter of a method declaration is final.
+     *
+     * @param index The index of the parameter.
+     * @return true if the parameter is final, false otherwise.
+     */
+    public boolean isParameterFinal(int index) {
+        return parameterFinals[index];
+    }
+
+    /**
+     * Checks whether the arguments of a method call could be split into separate arguments.
+     *
+     * @return true if the operands of the line are available, false otherwise.
+     */
+    public boolean hasOperands() {
+        return valueSpans != null;
+    }
+
+    /**
+     * Retrieves the number of arguments of a method call, or of operands of an if/while condition.
+     *
+     * @return The number of operands.
+     */
+    public int getOperandsCount() {
+        return valueSpans == null ? 0 : valueSpans.length / SPAN_SIZE;
+    }
+
+    /**
+     * Retrieves an argument of a method call, or an operand of an if/while condition, trimmed.
+     *
+     * @param index The index of the operand.
+     * @return The operand.
+     */
+    public String getOperand(int index) {
+        return span(valueSpans, index);
+    }
+
+    /**
+     * Checks whether an argument of a method call, or an operand of an if/while condition, is empty,
+     * without turning it into a String.
+     *
+     * @param index The index of the operand.
+     * @return true if the operand holds no characters once trimmed, false otherwise.
+     */
+    public boolean isOperandEmpty(int index) {
+        return valueSpans[SPAN_SIZE * index] == valueSpans[SPAN_SIZE * index + 1];
+    }
+
+    private String target() {
+        return text.subSequence(targetStart, targetEnd).toString();
+    }
+
+    private String span(int[] spans, int index) {
+        int start = spans[SPAN_SIZE * index];
+        if (start == NO_SPAN) {
+            return null;
+        }
+        return text.subSequence(start, spans[SPAN_SIZE * index + 1]).toString();
+    }
+}
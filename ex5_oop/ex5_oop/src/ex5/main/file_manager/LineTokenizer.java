@@ -0,0 +1,338 @@
+package ex5.main.file_manager;
+
+/**
+ * A hand-written lexer that splits a single s-Java line into tokens in one left-to-right scan.
+ * Tokens are produced on demand by {@link #next()}; the tokenizer keeps only the bounds and the
+ * {@link TokenType} of the current token, so scanning a line allocates nothing.
+ * Whitespace is the same set of characters the regular expression class {@code \s} matches.
+ */
+public class LineTokenizer {
+    private static final String[] KEYWORDS = {"void", "final", "if", "while", "return"};
+    private static final String[] TYPES = {"int", "double", "boolean", "char", "String"};
+    private static final String[] BOOLEAN_LITERALS = {"true", "false"};
+    private static final String PUNCTUATION = "(){},;=";
+    private static final String WHITESPACE = " \t\n\u000B\f\r";
+    private static final char DOUBLE_QUOTE = '"';
+    private static final char SINGLE_QUOTE = '\'';
+    private static final char DECIMAL_POINT = '.';
+    private static final char PLUS = '+';
+    private static final char MINUS = '-';
+    private static final char UNDERSCORE = '_';
+
+    private final CharSequence line;
+    private final int end;
+    private int position;
+    private TokenType tokenType;
+    private int tokenStart;
+    private int tokenEnd;
+
+    /**
+     * Constructs a tokenizer over a whole line.
+     *
+     * @param line The line to scan.
+     */
+    public LineTokenizer(CharSequence line) {
+        this(line, 0, line.length());
+    }
+
+    /**
+     * Constructs a tokenizer over a region of a line.
+     *
+     * @param line  The line to scan.
+     * @param start The index of the first character of the region.
+     * @param end   The index after the last character of the region.
+     */
+    public LineTokenizer(CharSequence line, int start, int end) {
+        this.line = line;
+        this.end = end;
+        this.position = start;
+        this.tokenStart = start;
+        this.tokenEnd = start;
+    }
+
+    /**
+     * Skips the whitespace after the current token and scans the next token.
+     *
+     * @return The type of the scanned token, {@link TokenType#END} at the end of the region.
+     */
+    public TokenType next() {
+        while (position < end && isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        tokenStart = position;
+        if (position >= end) {
+            tokenType = TokenType.END;
+        } else {
+            char current = line.charAt(position);
+            if (isWordStart(current)) {
+                scanWord();
+            } else if (startsNumber(position)) {
+                scanNumber();
+            } else if (current == DOUBLE_QUOTE || current == SINGLE_QUOTE) {
+                scanQuoted(current);
+            } else {
+                position++;
+                tokenType = PUNCTUATION.indexOf(current) >= 0 ? TokenType.PUNCTUATION : TokenType.INVALID;
+            }
+        }
+        tokenEnd = position;
+        return tokenType;
+    }
+
+    /**
+     * Advances over raw characters, without tokenizing them, up to the first delimiter.
+     * The delimiter itself is left to be returned by the following call to {@link #next()}.
+     *
+     * @param delimiters The characters that stop the scan.
+     * @return The number of characters skipped.
+     */
+    public int skipTo(String delimiters) {
+        int skipStart = position;
+        while (position < end && delimiters.indexOf(line.charAt(position)) < 0) {
+            position++;
+        }
+        return position - skipStart;
+    }
+
+    /**
+     * Retrieves the type of the current token.
+     *
+     * @return The type of the token scanned by the last call to {@link #next()}.
+     */
+    public TokenType tokenType() {
+        return tokenType;
+    }
+
+    /**
+     * Retrieves the index of the first character of the current token in the line.
+     *
+     * @return The start index of the current token.
+     */
+    public int tokenStart() {
+        return tokenStart;
+    }
+
+    /**
+     * Retrieves the index after the last character of the current token in the line.
+     *
+     * @return The end index of the current token.
+     */
+    public int tokenEnd() {
+        return tokenEnd;
+    }
+
+    /**
+     * Retrieves the position of the tokenizer in the line, right after the current token.
+     *
+     * @return The index of the next character to scan.
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Checks whether the current token is a word: a keyword, a type, an identifier or a boolean literal.
+     *
+     * @return true if the current token is a word, false otherwise.
+     */
+    public boolean isWord() {
+        return tokenType != TokenType.END && isWordStart(line.charAt(tokenStart));
+    }
+
+    /**
+     * Checks whether the current token is a word that starts with a letter.
+     *
+     * @return true if the current token is a word that starts with a letter, false otherwise.
+     */
+    public boolean isLetterWord() {
+        return tokenType != TokenType.END && isLetter(line.charAt(tokenStart));
+    }
+
+    /**
+     * Checks whether the current token is the given punctuation character.
+     *
+     * @param punctuation The punctuation character.
+     * @return true if the current token is the given punctuation, false otherwise.
+     */
+    public boolean isPunctuation(char punctuation) {
+        return tokenType == TokenType.PUNCTUATION && line.charAt(tokenStart) == punctuation;
+    }
+
+    /**
+     * Checks whether the text of the current token equals the given text.
+     *
+     * @param text The text to compare with.
+     * @return true if the current token has exactly the given text, false otherwise.
+     */
+    public boolean tokenEquals(String text) {
+        return regionEquals(tokenStart, tokenEnd, text);
+    }
+
+    /**
+     * Finds the text of the current token among the given candidates, without creating a new String.
+     *
+     * @param candidates The texts to compare with.
+     * @return The candidate equal to the current token, or null if there is none.
+     */
+    public String tokenAmong(String[] candidates) {
+        for (String candidate : candidates) {
+            if (tokenEquals(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the current token is a terminated string literal.
+     *
+     * @return true if the current token is a string literal, false otherwise.
+     */
+    public boolean isStringLiteral() {
+        return tokenType == TokenType.LITERAL && line.charAt(tokenStart) == DOUBLE_QUOTE;
+    }
+
+    /**
+     * Checks whether the current token is a char literal holding exactly one character.
+     *
+     * @return true if the current token is a char literal, false otherwise.
+     */
+    public boolean isCharLiteral() {
+        return tokenType == TokenType.LITERAL && line.charAt(tokenStart) == SINGLE_QUOTE &&
+                tokenEnd - tokenStart == 3;
+    }
+
+    /**
+     * Checks whether the current token is a numeric literal.
+     *
+     * @return true if the current token is a numeric literal, false otherwise.
+     */
+    public boolean isNumericLiteral() {
+        return tokenType == TokenType.LITERAL && startsNumber(tokenStart);
+    }
+
+    /**
+     * Checks whether the given character is whitespace, as matched by the regular expression {@code \s}.
+     *
+     * @param character The character to check.
+     * @return true if the character is whitespace, false otherwise.
+     */
+    public static boolean isWhitespace(char character) {
+        return WHITESPACE.indexOf(character) >= 0;
+    }
+
+    /**
+     * Checks whether the given character is an ASCII letter.
+     *
+     * @param character The character to check.
+     * @return true if the character is a letter, false otherwise.
+     */
+    public static boolean isLetter(char character) {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
+    }
+
+    /**
+     * Checks whether the given character is an ASCII digit.
+     *
+     * @param character The character to check.
+     * @return true if the character is a digit, false otherwise.
+     */
+    public static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    /**
+     * Checks whether the given character may appear inside a word: a letter, a digit or an underscore.
+     *
+     * @param character The character to check.
+     * @return true if the character is a word character, false otherwise.
+     */
+    public static boolean isWordCharacter(char character) {
+        return isLetter(character) || isDigit(character) || character == UNDERSCORE;
+    }
+
+    private static boolean isWordStart(char character) {
+        return isLetter(character) || character == UNDERSCORE;
+    }
+
+    private void scanWord() {
+        int wordStart = position;
+        while (position < end && isWordCharacter(line.charAt(position))) {
+            position++;
+        }
+        if (anyRegionEquals(wordStart, position, KEYWORDS)) {
+            tokenType = TokenType.KEYWORD;
+        } else if (anyRegionEquals(wordStart, position, TYPES)) {
+            tokenType = TokenType.TYPE;
+        } else if (anyRegionEquals(wordStart, position, BOOLEAN_LITERALS)) {
+            tokenType = TokenType.LITERAL;
+        } else {
+            tokenType = TokenType.IDENTIFIER;
+        }
+    }
+
+    // [-+]?\d+(\.\d+)? or [-+]?\.\d+
+    private boolean startsNumber(int index) {
+        if (index < end && (line.charAt(index) == PLUS || line.charAt(index) == MINUS)) {
+            index++;
+        }
+        if (index < end && line.charAt(index) == DECIMAL_POINT) {
+            index++;
+        }
+        return index < end && isDigit(line.charAt(index));
+    }
+
+    private void scanNumber() {
+        char current = line.charAt(position);
+        if (current == PLUS || current == MINUS) {
+            position++;
+        }
+        skipDigits();
+        if (position + 1 < end && line.charAt(position) == DECIMAL_POINT &&
+                isDigit(line.charAt(position + 1))) {
+            position++;
+            skipDigits();
+        }
+        tokenType = TokenType.LITERAL;
+    }
+
+    private void skipDigits() {
+        while (position < end && isDigit(line.charAt(position))) {
+            position++;
+        }
+    }
+
+    private void scanQuoted(char quote) {
+        position++;
+        while (position < end && line.charAt(position) != quote) {
+            position++;
+        }
+        if (position < end) {
+            position++;
+            tokenType = TokenType.LITERAL;
+        } else {
+            tokenType = TokenType.INVALID;
+        }
+    }
+
+    private boolean anyRegionEquals(int regionStart, int regionEnd, String[] texts) {
+        for (String text : texts) {
+            if (regionEquals(regionStart, regionEnd, text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean regionEquals(int regionStart, int regionEnd, String text) {
+        if (regionEnd - regionStart != text.length()) {
+            return false;
+        }
+        for (int index = 0; index < text.length(); index++) {
+            if (line.charAt(regionStart + index) != text.charAt(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
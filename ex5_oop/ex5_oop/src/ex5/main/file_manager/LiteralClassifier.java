@@ -0,0 +1,141 @@
+package ex5.main.file_manager;
+
+/**
+ * Classifies s-Java literals by their type in a single scan of their characters, instead of trying a
+ * regular expression per type one after the other.
+ * A literal is classified as those regular expressions matched it, but for the range of an int:
+ * - int: an optional minus followed by digits, whose value fits in an int.
+ * - double: an optional minus followed by digits with a single decimal point and at least one digit, or
+ *   digits whose value does not fit in an int. Since such digits are classified as a double, an int
+ *   rejects them, while a double, a boolean and a condition still accept them.
+ * - boolean: true or false.
+ * - char: a single character, other than a line terminator, between single quotes.
+ * - String: any characters other than a double quote, between double quotes.
+ * Which types a literal may be given to is decided by {@link VariableType#accepts}. The range of an int
+ * is checked on the scanned digits, so no value is built.
+ */
+public class LiteralClassifier {
+    private static final String TRUE = "true";
+    private static final String FALSE = "false";
+    private static final char DOUBLE_QUOTE = '"';
+    private static final char SINGLE_QUOTE = '\'';
+    private static final char DECIMAL_POINT = '.';
+    private static final char MINUS = '-';
+    private static final char ZERO = '0';
+    // the digits of the largest int, and of the magnitude of the smallest one
+    private static final String MAX_INT_DIGITS = Integer.toString(Integer.MAX_VALUE);
+    private static final String MIN_INT_DIGITS = Long.toString(-(long) Integer.MIN_VALUE);
+    // characters that the regular expression '.' does not match
+    private static final String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
+    private static final int CHAR_LITERAL_LENGTH = 3;
+    private static final int QUOTES_LENGTH = 2;
+
+    /**
+     * Classifies a literal.
+     *
+     * @param literal The literal, trimmed.
+     * @return The type of the literal, or null if it is not a valid literal.
+     */
+    public static VariableType classify(CharSequence literal) {
+        return classify(literal, 0, literal.length());
+    }
+
+    /**
+     * Classifies a literal found in a span of a line, without copying the span.
+     *
+     * @param line  The text of the line.
+     * @param start The start of the literal in the line.
+     * @param end   The end of the literal in the line, exclusive.
+     * @return The type of the literal, or null if it is not a valid literal.
+     */
+    public static VariableType classify(CharSequence line, int start, int end) {
+        if (start >= end) {
+            return null;
+        }
+        switch (line.charAt(start)) {
+            case DOUBLE_QUOTE:
+                return isStringLiteral(line, start, end) ? VariableType.STRING : null;
+            case SINGLE_QUOTE:
+                return isCharLiteral(line, start, end) ? VariableType.CHAR : null;
+            default:
+                if (regionEquals(line, start, end, TRUE) || regionEquals(line, start, end, FALSE)) {
+                    return VariableType.BOOLEAN;
+                }
+                return classifyNumber(line, start, end);
+        }
+    }
+
+    private static boolean isStringLiteral(CharSequence line, int start, int end) {
+        if (end - start < QUOTES_LENGTH || line.charAt(end - 1) != DOUBLE_QUOTE) {
+            return false;
+        }
+        for (int index = start + 1; index < end - 1; index++) {
+            if (line.charAt(index) == DOUBLE_QUOTE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCharLiteral(CharSequence line, int start, int end) {
+        return end - start == CHAR_LITERAL_LENGTH && line.charAt(end - 1) == SINGLE_QUOTE &&
+                LINE_TERMINATORS.indexOf(line.charAt(start + 1)) < 0;
+    }
+
+    // an int or a double: digits with at most one decimal point, after an optional minus
+    private static VariableType classifyNumber(CharSequence line, int start, int end) {
+        boolean isNegative = line.charAt(start) == MINUS;
+        int index = isNegative ? start + 1 : start;
+        boolean hasDigit = false;
+        boolean hasDecimalPoint = false;
+        // the first digit other than a leading zero
+        int significantStart = end;
+        for (; index < end; index++) {
+            char character = line.charAt(index);
+            if (LineTokenizer.isDigit(character)) {
+                hasDigit = true;
+                if (character != ZERO && significantStart == end) {
+                    significantStart = index;
+                }
+            } else if (character == DECIMAL_POINT && !hasDecimalPoint) {
+                hasDecimalPoint = true;
+            } else {
+                return null;
+            }
+        }
+        if (!hasDigit) {
+            return null;
+        }
+        if (hasDecimalPoint) {
+            return VariableType.DOUBLE;
+        }
+        String limit = isNegative ? MIN_INT_DIGITS : MAX_INT_DIGITS;
+        return fitsIn(line, significantStart, end, limit) ? VariableType.INT : VariableType.DOUBLE;
+    }
+
+    // whether the digits, without leading zeros, are at most the digits of the limit
+    private static boolean fitsIn(CharSequence line, int start, int end, String limit) {
+        if (end - start != limit.length()) {
+            return end - start < limit.length();
+        }
+        for (int index = 0; index < limit.length(); index++) {
+            char digit = line.charAt(start + index);
+            if (digit != limit.charAt(index)) {
+                return digit < limit.charAt(index);
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionEquals(CharSequence line, int start, int end, String text) {
+        if (end - start != text.length()) {
+            return false;
+        }
+        for (int index = 0; index < text.length(); index++) {
+            if (line.charAt(start + index) != text.charAt(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
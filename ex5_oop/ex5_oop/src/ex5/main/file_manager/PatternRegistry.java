@@ -0,0 +1,134 @@
+package ex5.main.file_manager;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+
+/**
+ * The central registry through which the validators evaluate the regular expressions of
+ * {@link RegexPattern}. The patterns are compiled once, and every thread keeps one Matcher per
+ * pattern that is reset to each new input, so a match compiles nothing and allocates no Matcher.
+ * Every evaluation is counted under the {@link ValidationPhase} the current thread is in, and by the
+ * current thread, so a single validation may count its own evaluations while others run concurrently.
+ */
+public class PatternRegistry {
+    private static final RegexPattern[] PATTERNS = RegexPattern.values();
+    private static final ValidationPhase[] PHASES = ValidationPhase.values();
+    private static final String EMPTY = "";
+    private static final String COUNTER_FORMAT = "%s=%d";
+    private static final String COUNTER_SEPARATOR = " ";
+
+    private static final ThreadLocal<ThreadState> threadStates = ThreadLocal.withInitial(ThreadState::new);
+    private static final LongAdder[] evaluations = new LongAdder[PHASES.length];
+
+    static {
+        for (int index = 0; index < evaluations.length; index++) {
+            evaluations[index] = new LongAdder();
+        }
+    }
+
+    /**
+     * Checks whether the whole input matches the given pattern.
+     *
+     * @param pattern The pattern to match.
+     * @param input   The input to check.
+     * @return true if the entire input matches the pattern, false otherwise.
+     */
+    public static boolean matches(RegexPattern pattern, CharSequence input) {
+        return matcher(pattern, input).matches();
+    }
+
+    /**
+     * Checks whether the given pattern occurs anywhere in the input.
+     *
+     * @param pattern The pattern to find.
+     * @param input   The input to search.
+     * @return true if some part of the input matches the pattern, false otherwise.
+     */
+    public static boolean find(RegexPattern pattern, CharSequence input) {
+        return matcher(pattern, input).find();
+    }
+
+    /**
+     * Sets the validation phase the current thread is in, to which its following evaluations are counted.
+     *
+     * @param phase The current validation phase.
+     */
+    public static void setPhase(ValidationPhase phase) {
+        threadStates.get().phase = phase;
+    }
+
+    /**
+     * Retrieves the validation phase the current thread is in.
+     *
+     * @return The phase the evaluations of the current thread are counted to.
+     */
+    public static ValidationPhase getPhase() {
+        return threadStates.get().phase;
+    }
+
+    /**
+     * Retrieves the number of regular expression evaluations performed by the current thread, in all the
+     * phases. The count only grows, so the evaluations of a span of work are the difference between the
+     * counts at its end and at its start.
+     *
+     * @return The number of evaluations of the current thread since it started.
+     */
+    public static long getThreadEvaluations() {
+        return threadStates.get().evaluations;
+    }
+
+    /**
+     * Retrieves the number of regular expression evaluations performed in a phase, by all threads.
+     *
+     * @param phase The validation phase.
+     * @return The number of evaluations counted for the phase since the last reset.
+     */
+    public static long getEvaluations(ValidationPhase phase) {
+        return evaluations[phase.ordinal()].sum();
+    }
+
+    /**
+     * Resets the evaluation counters of all the phases.
+     */
+    public static void resetEvaluations() {
+        for (LongAdder counter : evaluations) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * Formats the evaluation counters of all the phases, for example "LINE_FORMAT=12 GLOBAL_VARIABLES=3".
+     *
+     * @return The counters of all the phases in a single line.
+     */
+    public static String formatEvaluations() {
+        StringBuilder builder = new StringBuilder();
+        for (ValidationPhase phase : PHASES) {
+            if (builder.length() > 0) {
+                builder.append(COUNTER_SEPARATOR);
+            }
+            builder.append(String.format(COUNTER_FORMAT, phase, getEvaluations(phase)));
+        }
+        return builder.toString();
+    }
+
+    private static Matcher matcher(RegexPattern pattern, CharSequence input) {
+        ThreadState state = threadStates.get();
+        state.evaluations++;
+        evaluations[state.phase.ordinal()].increment();
+        return state.matchers[pattern.ordinal()].reset(input);
+    }
+
+    // the matchers of a thread, along with its phase and its own evaluation count
+    private static final class ThreadState {
+        private final Matcher[] matchers = new Matcher[PATTERNS.length];
+        private ValidationPhase phase = ValidationPhase.LINE_FORMAT;
+        private long evaluations;
+
+        private ThreadState() {
+            for (RegexPattern pattern : PATTERNS) {
+                matchers[pattern.ordinal()] = pattern.getPattern().matcher(EMPTY);
+            }
+        }
+    }
+}
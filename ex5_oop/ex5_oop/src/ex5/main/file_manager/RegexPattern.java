@@ -0,0 +1,31 @@
+package ex5.main.file_manager;
+
+import java.util.regex.Pattern;
+
+/**
+ * The regular expressions still used by the validators, each compiled once when the class is loaded.
+ * Only fixed alternatives without quantifiers are left, so a search is linear in the length of the line;
+ * every pattern with a repetition was replaced by a hand-written scan.
+ * Matching is done through {@link PatternRegistry}, which reuses a Matcher per pattern and thread.
+ */
+public enum RegexPattern {
+    /**
+     * An opening or closing block comment, or a line comment that does not start the line.
+     */
+    MIDDLE_COMMENT("/\\*|\\*/|.//");
+
+    private final Pattern pattern;
+
+    RegexPattern(String regex) {
+        this.pattern = Pattern.compile(regex);
+    }
+
+    /**
+     * Retrieves the compiled pattern.
+     *
+     * @return The precompiled Pattern of this regular expression.
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+}
@@ -1,9 +1,6 @@
 package ex5.main.file_manager;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import static ex5.main.Sjavac.SYNTAX_ERROR_EXIT_CODE;
+import ex5.main.file_manager.events.SlowLineEvent;
 
 /**
  * Utility class for validating lines based on specific patterns.
@@ -14,11 +11,9 @@ public class RowValidnessClass {
     private static final String ERROR_UNSUPPORTED_MIDDLE_COMMENT = "ERROR in line %d not supported " +
             "comment value in the middle of the line!";
     private static final String ERROR_INVALID_LINE_FORMAT = "ERROR in line %d invalid line Format";
-
-    private static final String SUFFIX_PATTERN = ".*[;{}]\\s*$";
-    private static final String MIDDLE_COMMENT_PATTERN = "/\\*|\\*/|.//";
-    private static final String START_FUNCTION_PATTERN = "\\s*void.*";
-    private static final String IN_METHOD_ASSIGNMENT_PATTERN = "^\\s*[a-zA-Z_]\\w*\\s*=\\s*.*;$";
+    private static final String COMMENT_PREFIX = "//";
+    private static final String LINE_SUFFIXES = ";{}";
+    private static final String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
 
     /**
      * Checks if a line ends with a valid suffix (e.g., ;, {}, or a comment).
@@ -27,10 +22,8 @@ public class RowValidnessClass {
      * @param lineCounter The line number being validated.
      * @throws SyntaxException If the line does not end with a valid suffix.
      */
-    public static void checkSuffixes(String line, int lineCounter) throws SyntaxException {
-        Pattern pattern = Pattern.compile(SUFFIX_PATTERN);
-        Matcher mac = pattern.matcher(line);
-        if (!mac.matches()) {
+    public static void checkSuffixes(CharSequence line, int lineCounter) throws SyntaxException {
+        if (!hasValidSuffix(line)) {
             throw new SyntaxException(String.format(ERROR_UNSUPPORTED_COMMENT, lineCounter));
         }
     }
@@ -42,72 +35,106 @@ public class RowValidnessClass {
      * @param lineCounter The line number being validated.
      * @throws SyntaxException If comments are found in the middle of the line.
      */
-    public static void checkMiddleComments(String line, int lineCounter) throws SyntaxException {
-        Pattern pattern = Pattern.compile(MIDDLE_COMMENT_PATTERN);
-        Matcher matcher = pattern.matcher(line);
-        if (matcher.find()) {
+    public static void checkMiddleComments(CharSequence line, int lineCounter) throws SyntaxException {
+        if (PatternRegistry.find(RegexPattern.MIDDLE_COMMENT, line)) {
             throw new SyntaxException(String.format(ERROR_UNSUPPORTED_MIDDLE_COMMENT, lineCounter));
         }
     }
 
     /**
-     * Checks if the given line starts a function definition.
+     * Checks the format of a given line using various s-Java validation rules.
+     * A check lasting at least the threshold of {@link SlowLineEvent} is recorded as one, when a flight
+     * recording enables it.
      *
-     * @param line The line to check.
-     * @return true if the line starts a function definition, false otherwise.
+     * @param line       The line to check.
+     * @param lineIndex  The index of the line among the code lines, which the error reports.
+     * @param lineNumber The 1-based number of the line in the file, which the event reports.
+     * @return The format of the line.
+     * @throws SyntaxException If the line does not match any supported s-Java line format.
      */
-    public static boolean isStartFunction(String line) {
-        Pattern pattern = Pattern.compile(START_FUNCTION_PATTERN);
-        Matcher matcher = pattern.matcher(line);
-        return matcher.matches();
+    public static LineKind checkLineFormat(CharSequence line, int lineIndex, int lineNumber)
+            throws SyntaxException {
+        SlowLineEvent event = new SlowLineEvent();
+        event.begin();
+        LineKind kind = SJavaValidator.classify(line);
+        event.end();
+        if (event.shouldCommit()) {
+            event.lineNumber = lineNumber;
+            event.length = line.length();
+            event.format = kind.name();
+            event.commit();
+        }
+        if (kind != LineKind.INVALID) {
+            return kind;
+        }
+        throw new SyntaxException(String.format(ERROR_INVALID_LINE_FORMAT, lineIndex));
     }
 
     /**
-     * Checks if the given string matches the format of an assignment inside a method.
+     * Runs all the line checks on a code line: its suffix, its comments and its format.
      *
-     * @param string The string to check.
-     * @return true if the string matches an assignment format, false otherwise.
+     * @param line       The line to check.
+     * @param lineIndex  The index of the line among the code lines, which the errors report.
+     * @param lineNumber The 1-based number of the line in the file.
+     * @return The format of the line.
+     * @throws SyntaxException If the line fails one of the checks.
      */
-    public static boolean isInMethodAssignment(String string) {
-        Pattern pattern = Pattern.compile(IN_METHOD_ASSIGNMENT_PATTERN);
-        Matcher matcher = pattern.matcher(string);
-        return matcher.matches();
+    public static LineKind checkLine(CharSequence line, int lineIndex, int lineNumber) throws SyntaxException {
+        checkSuffixes(line, lineIndex);
+        checkMiddleComments(line, lineIndex);
+        return checkLineFormat(line, lineIndex, lineNumber);
     }
 
     /**
-     * Checks the format of a given line using various s-Java validation rules.
+     * Checks if a line is blank or a comment line, which is skipped before any other check.
      *
-     * @param line      The line to check.
-     * @param lineIndex The line number being validated.
+     * @param line The line to check.
+     * @return true if the line matches //.* or \s*, false otherwise.
      */
-    public static void checkLineFormat(String line, int lineIndex) {
-        try {
-            if (SJavaValidator.matchDeclarationFormat(line)) {
-                return;
-            }
-            if (SJavaValidator.matchAssignmentFormat(line)) {
-                return;
-            }
-            if (SJavaValidator.matchIfWhileFormat(line)) {
-                return;
+    public static boolean isEmptyOrComment(CharSequence line) {
+        boolean isComment = startsWith(line, COMMENT_PREFIX);
+        for (int index = 0; index < line.length(); index++) {
+            if (isComment) {
+                // '.' matches any character but a line terminator
+                if (LINE_TERMINATORS.indexOf(line.charAt(index)) >= 0) {
+                    return false;
+                }
+                continue;
             }
-            if (SJavaValidator.matchMethodDeclarationFormat(line)) {
-                return;
+            if (!LineTokenizer.isWhitespace(line.charAt(index))) {
+                return false;
             }
-            if (SJavaValidator.matchMethodCallFormat(line)) {
-                return;
-            }
-            if (SJavaValidator.matchEndOfScopeFormat(line)) {
-                return;
+        }
+        return true;
+    }
+
+    // the language of .*[;{}]\s*$ in a single backward scan: the last character that is not whitespace
+    // ends the line, and no line terminator comes before it
+    private static boolean hasValidSuffix(CharSequence line) {
+        int end = line.length();
+        while (end > 0 && LineTokenizer.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        if (end == 0 || LINE_SUFFIXES.indexOf(line.charAt(end - 1)) < 0) {
+            return false;
+        }
+        for (int index = 0; index < end - 1; index++) {
+            if (LINE_TERMINATORS.indexOf(line.charAt(index)) >= 0) {
+                return false;
             }
-            if (SJavaValidator.matchReturnFormat(line)) {
-                return;
+        }
+        return true;
+    }
+
+    private static boolean startsWith(CharSequence line, String prefix) {
+        if (line.length() < prefix.length()) {
+            return false;
+        }
+        for (int index = 0; index < prefix.length(); index++) {
+            if (line.charAt(index) != prefix.charAt(index)) {
+                return false;
             }
-            throw new SyntaxException(String.format(ERROR_INVALID_LINE_FORMAT, lineIndex));
-        } catch (SyntaxException e) {
-            System.out.println(SYNTAX_ERROR_EXIT_CODE);
-            System.out.println(e.getMessage());
-            System.exit(SYNTAX_ERROR_EXIT_CODE);
         }
+        return true;
     }
 }
@@ -1,60 +1,113 @@
 package ex5.main.file_manager;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
 /**
  * SJavaValidator class provides methods to validate different constructs in the
  * simplified Java language (s-Java).
- * It uses regular expressions to match various patterns, including variable declarations,
- * assignments, method declarations,
- * and control structures like if and while.
+ * It is a hand-written recognizer over the tokens of {@link LineTokenizer}: every line is scanned
+ * once from left to right, including variable declarations, assignments, method declarations,
+ * method calls and control structures like if and while.
  */
 public class SJavaValidator {
-    // Method to check if a line matches the variable declaration format
-    // Regular expression for valid s-Java variable declaration
-    private static final String VARIABLE_FORMAT = "[a-zA-Z]\\w*";
-    private static final String OPEN_BRACKET = "(";
-    private static final String DECLARATION_REGEX =
-            "^\\s*(final\\s+)?(int|double|String|boolean|char)\\s+" +  // Type with optional 'final'
-                    OPEN_BRACKET + VARIABLE_FORMAT + "\\s*(=\\s*[^,;]+)?\\s*,\\s*)*" +  // Multiple variables
-                    "[a-zA-Z_][a-zA-Z_\\d]*\\s*(=\\s*[^,;]+)?\\s*;\\s*$";     // Last variable and semicolon
-    private static final Pattern DECLARATION_PATTERN = Pattern.compile(DECLARATION_REGEX);
-
-    private static final String ASSIGNMENT_REGEX =
-            "^\\s*(" + VARIABLE_FORMAT + ")\\s*=\\s*" +  // Variable name
-                    "(?:\"[^\"]*\"|'[^']'|true|false|[-+]?\\d+(\\.\\d+)?" +
-                    "|[-+]?\\.\\d+|[a-zA-Z_][a-zA-Z_\\d]*)\\s*" +  // Values or variables
-                    "(?:,\\s*[a-zA-Z_][a-zA-Z_\\d]*\\s*=\\s*" +  // Multiple assignments
-                    "(?:\"[^\"]*\"|'[^']'|true|false|[-+]?\\d+(\\.\\d+)?|[-+]?\\.\\d+|" +
-                    "[a-zA-Z_][a-zA-Z_\\d]*)\\s*)*" +
-                    ";\\s*$";
-    private static final Pattern ASSIGNMENT_PATTERN = Pattern.compile(ASSIGNMENT_REGEX);
     private static final String IF = "if";
     private static final String WHILE = "while";
-    private static final String CONDITIONAL_PATTERN = "^(if|while)\\s*\\(([^\\)]+)\\)\\s*\\{$";
-
-    // Regex for a valid return statement:
-    private static final String RETURN_REGEX = "^\\s*return\\s*;\\s*$";
-    // Regex for a valid end-of-scope line:
-    private static final String END_OF_SCOPE_REGEX = "^\\s*\\}\\s*$";
-    private static final String METHOD_IDENTIFIER = "[a-zA-Z][a-zA-Z0-9_]*"; // Valid identifier
-    // (method name or variable)
-    private static final String NUMERIC_CONST = "\\d+";
-    private static final String STRING_LITERAL = "\\\".*?\\\"";
-    private static final String CHAR_LITERAL = "\\'.*?\\'";
-    private static final String OR = "|";
-    private static final String CLOSE_REG_BRACE = ")*";
-    private static final String ZERO_OR_MORE_COMMA_SEPARATED = "(\\s*,\\s*";
-    private static final String ZERO_OR_MORE_WHITESPACES = "^\\s*";
-    private static final String OPEN_PARENTHESIS_FORMAT_TRIMED = "\\s*\\(\\s*(";
-    private static final String END_OF_METHOD = ")?\\s*\\)\\s*;\\s*$";
-    private static final String INT_DOUBLE_BOOLEAN_CHAR_STRING = "int|double|boolean|char|String";
-    // Valid parameter types
-    private static final String OPTIONAL_FINAL = "(?:final\\s+)?(";
-    private static final String CLOSING_PARENTHESIS = ")\\s+";
-    private static final String VOID = "^\\s*void\\s+";
-    private static final String END_OF_METHOD_DECLARATION = ")?\\s*\\)\\s*\\{\\s*$";
-    private static final String CLOSE_PARENTHESISE = ")";
+    private static final String FINAL = "final";
+    private static final String VOID = "void";
+    private static final String RETURN = "return";
+    private static final char OPEN_PARENTHESIS = '(';
+    private static final char CLOSE_PARENTHESIS = ')';
+    private static final char OPEN_BRACE = '{';
+    private static final char CLOSE_BRACE = '}';
+    private static final char COMMA = ',';
+    private static final char SEMICOLON = ';';
+    private static final char EQUALS = '=';
+    private static final char DOUBLE_QUOTE = '"';
+    private static final char SINGLE_QUOTE = '\'';
+    private static final char TRIM_LIMIT = ' ';
+    private static final char UNDERSCORE = '_';
+    private static final String DECLARATION_VALUE_DELIMITERS = ",;";
+    private static final String CONDITION_DELIMITER = ")";
+    // characters that the regular expression '.' does not match
+    private static final String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
+
+    // states of the automaton recognizing the arguments of a method call, as bit flags
+    private static final int ARGUMENTS_START = 1;
+    private static final int AFTER_COMMA = 1 << 1;
+    private static final int IN_NAME = 1 << 2;
+    private static final int IN_NUMBER = 1 << 3;
+    private static final int IN_STRING = 1 << 4;
+    private static final int IN_CHAR = 1 << 5;
+    private static final int AFTER_ARGUMENT = 1 << 6;
+    private static final int CLOSED = 1 << 7;
+    private static final int TERMINATED = 1 << 8;
+    private static final int NO_STATE = 0;
+
+    /**
+     * Recognizes the format of a given line, scanning its leading tokens once to choose the
+     * only formats the line may still match.
+     *
+     * @param line The line of code to check.
+     * @return The format of the line, or {@link LineKind#INVALID} if it matches none.
+     */
+    public static LineKind classify(CharSequence line) {
+        LineTokenizer tokenizer = new LineTokenizer(line);
+        tokenizer.next();
+        if (tokenizer.isPunctuation(CLOSE_BRACE)) {
+            return tokenizer.next() == TokenType.END ? LineKind.END_OF_SCOPE : LineKind.INVALID;
+        }
+        if (!tokenizer.isWord()) {
+            // only the if/while format trims control characters other than whitespace
+            return matchIfWhileFormat(line) ? LineKind.CONDITION : LineKind.INVALID;
+        }
+        boolean isCondition = tokenizer.tokenEquals(IF) || tokenizer.tokenEquals(WHILE);
+        boolean startsWithLetter = tokenizer.isLetterWord();
+        boolean isDeclaration = tokenizer.tokenType() == TokenType.TYPE || tokenizer.tokenEquals(FINAL);
+        boolean isMethodDeclaration = tokenizer.tokenEquals(VOID);
+        boolean isReturn = tokenizer.tokenEquals(RETURN);
+        tokenizer.next();
+        if (tokenizer.isPunctuation(EQUALS)) {
+            return startsWithLetter && matchAssignmentFormat(line) ? LineKind.ASSIGNMENT : LineKind.INVALID;
+        }
+        if (tokenizer.isPunctuation(OPEN_PARENTHESIS)) {
+            if (isCondition && matchIfWhileFormat(line)) {
+                return LineKind.CONDITION;
+            }
+            return startsWithLetter && matchMethodCallFormat(line) ? LineKind.METHOD_CALL : LineKind.INVALID;
+        }
+        if (isDeclaration) {
+            return matchDeclarationFormat(line) ? LineKind.DECLARATION : LineKind.INVALID;
+        }
+        if (isMethodDeclaration) {
+            return matchMethodDeclarationFormat(line) ? LineKind.METHOD_DECLARATION : LineKind.INVALID;
+        }
+        if (isReturn) {
+            return matchReturnFormat(line) ? LineKind.RETURN : LineKind.INVALID;
+        }
+        return LineKind.INVALID;
+    }
+
+    /**
+     * Checks whether a declared name is a legal variable name: a single underscore is the only word
+     * the declaration format accepts that is not a variable name.
+     *
+     * @param name The declared name.
+     * @return true if the name is a legal variable name, false otherwise.
+     */
+    public static boolean isVariableName(CharSequence name) {
+        return isVariableName(name, 0, name.length());
+    }
+
+    /**
+     * Checks whether a span of a line is a valid variable name, without copying the span.
+     *
+     * @param line  The text of the line.
+     * @param start The start of the span.
+     * @param end   The end of the span, exclusive.
+     * @return true if the span is a valid variable name, otherwise false.
+     */
+    public static boolean isVariableName(CharSequence line, int start, int end) {
+        return end > start && (LineTokenizer.isLetter(line.charAt(start)) ||
+                (end - start > 1 && line.charAt(start) == UNDERSCORE));
+    }
 
     /**
      * Matches a given line against the variable declaration format (including optional
@@ -63,9 +116,36 @@ public class SJavaValidator {
      * @param line The line of code to check.
      * @return true if the line matches the variable declaration format, otherwise false.
      */
-    public static boolean matchDeclarationFormat(String line) {
-        Matcher matcher = DECLARATION_PATTERN.matcher(line);
-        return matcher.matches();
+    public static boolean matchDeclarationFormat(CharSequence line) {
+        LineTokenizer tokenizer = new LineTokenizer(line);
+        tokenizer.next();
+        if (tokenizer.tokenEquals(FINAL)) {
+            tokenizer.next();
+        }
+        if (tokenizer.tokenType() != TokenType.TYPE) {
+            return false;
+        }
+        while (true) {
+            tokenizer.next();
+            if (!tokenizer.isWord()) {
+                return false;
+            }
+            boolean startsWithLetter = tokenizer.isLetterWord();
+            tokenizer.next();
+            if (tokenizer.isPunctuation(EQUALS)) {
+                // the value is validated later, it may be any text up to the next ',' or ';'
+                if (tokenizer.skipTo(DECLARATION_VALUE_DELIMITERS) == 0) {
+                    return false;
+                }
+                tokenizer.next();
+            }
+            if (tokenizer.isPunctuation(SEMICOLON)) {
+                return tokenizer.next() == TokenType.END;
+            }
+            if (!tokenizer.isPunctuation(COMMA) || !startsWithLetter) {
+                return false;
+            }
+        }
     }
 
     /**
@@ -74,24 +154,75 @@ public class SJavaValidator {
      * @param line The line of code to check.
      * @return true if the line matches the variable assignment format, otherwise false.
      */
-    public static boolean matchAssignmentFormat(String line) {
-        Matcher matcher = ASSIGNMENT_PATTERN.matcher(line);
-        return matcher.matches();
+    public static boolean matchAssignmentFormat(CharSequence line) {
+        LineTokenizer tokenizer = new LineTokenizer(line);
+        tokenizer.next();
+        if (!tokenizer.isLetterWord()) {
+            return false;
+        }
+        while (true) {
+            tokenizer.next();
+            if (!tokenizer.isPunctuation(EQUALS)) {
+                return false;
+            }
+            tokenizer.next();
+            if (!isAssignedValue(tokenizer)) {
+                return false;
+            }
+            tokenizer.next();
+            if (tokenizer.isPunctuation(SEMICOLON)) {
+                return tokenizer.next() == TokenType.END;
+            }
+            if (!tokenizer.isPunctuation(COMMA)) {
+                return false;
+            }
+            tokenizer.next();
+            if (!tokenizer.isWord()) {
+                return false;
+            }
+        }
+    }
+
+    private static boolean isAssignedValue(LineTokenizer tokenizer) {
+        return tokenizer.isWord() || tokenizer.isNumericLiteral() || tokenizer.isStringLiteral() ||
+                tokenizer.isCharLiteral();
     }
 
     /**
      * Matches a given line against the 'if' or 'while' statement format.
+     * The line is trimmed first, so the condition may be surrounded by any control characters.
      *
      * @param line The line of code to check.
      * @return true if the line matches the 'if' or 'while' format, otherwise false.
      */
-    // Method to check if a line matches the if/while block format
-    public static boolean matchIfWhileFormat(String line) {
-        line = line.trim();
-        if (line.startsWith(IF) || line.startsWith(WHILE)) {
-            return line.matches(CONDITIONAL_PATTERN);
+    public static boolean matchIfWhileFormat(CharSequence line) {
+        int start = 0;
+        int end = line.length();
+        while (start < end && line.charAt(start) <= TRIM_LIMIT) {
+            start++;
         }
-        return false;
+        while (end > start && line.charAt(end - 1) <= TRIM_LIMIT) {
+            end--;
+        }
+        LineTokenizer tokenizer = new LineTokenizer(line, start, end);
+        tokenizer.next();
+        if (!tokenizer.tokenEquals(IF) && !tokenizer.tokenEquals(WHILE)) {
+            return false;
+        }
+        tokenizer.next();
+        if (!tokenizer.isPunctuation(OPEN_PARENTHESIS)) {
+            return false;
+        }
+        // the condition is validated later, it may be any non-empty text up to the first ')'
+        if (tokenizer.skipTo(CONDITION_DELIMITER) == 0) {
+            return false;
+        }
+        tokenizer.next();
+        if (!tokenizer.isPunctuation(CLOSE_PARENTHESIS)) {
+            return false;
+        }
+        tokenizer.next();
+        return tokenizer.isPunctuation(OPEN_BRACE) && tokenizer.tokenEnd() == end;
     }
 
     /**
@@ -100,13 +231,14 @@ public class SJavaValidator {
      * @param line The line of code to check.
      * @return true if the line matches the 'return' format, otherwise false.
      */
-    // Method to check if a line matches the return statement format
-    public static boolean matchReturnFormat(String line) {
-        // Compile the regex pattern
-        Pattern pattern = Pattern.compile(RETURN_REGEX);
-        // Match the line against the pattern
-        Matcher matcher = pattern.matcher(line);
-        return matcher.matches();
+    public static boolean matchReturnFormat(CharSequence line) {
+        LineTokenizer tokenizer = new LineTokenizer(line);
+        tokenizer.next();
+        if (!tokenizer.tokenEquals(RETURN)) {
+            return false;
+        }
+        tokenizer.next();
+        return tokenizer.isPunctuation(SEMICOLON) && tokenizer.next() == TokenType.END;
     }
 
     /**
@@ -115,40 +247,100 @@ public class SJavaValidator {
      * @param line The line of code to check.
      * @return true if the line matches the end-of-scope format, otherwise false.
      */
-    // Method to check if a line matches the end-of-scope format
-    public static boolean matchEndOfScopeFormat(String line) {
-        // Compile the regex pattern
-        Pattern pattern = Pattern.compile(END_OF_SCOPE_REGEX);
-        // Match the line against the pattern
-        Matcher matcher = pattern.matcher(line);
-        return matcher.matches();
+    public static boolean matchEndOfScopeFormat(CharSequence line) {
+        LineTokenizer tokenizer = new LineTokenizer(line);
+        tokenizer.next();
+        return tokenizer.isPunctuation(CLOSE_BRACE) && tokenizer.next() == TokenType.END;
     }
 
     /**
      * Matches a given line against the method call format, including parameters and argument types.
+     * An argument is a name, an unsigned integer, or a string or char literal; a quoted argument may
+     * itself contain quotes, so the arguments are recognized by simulating all of their possible
+     * parses at once.
      *
      * @param line The line of code to check.
      * @return true if the line matches the method call format, otherwise false.
      */
-    // Method to check if a line matches the method call format
-    public static boolean matchMethodCallFormat(String line) {
-        // Constructing the regex for a method call format
-        // Parameter regex
-        String parameter =
-                OPEN_BRACKET + METHOD_IDENTIFIER + OR + NUMERIC_CONST + OR + STRING_LITERAL
-                        + OR + CHAR_LITERAL + CLOSE_PARENTHESISE;
-        // Parameters list: optional first parameter, followed by zero or more comma-separated parameters
-        String parameters = parameter + ZERO_OR_MORE_COMMA_SEPARATED + parameter + CLOSE_REG_BRACE;
-        // Full method call regex
-        String methodCallRegex = ZERO_OR_MORE_WHITESPACES + METHOD_IDENTIFIER +
-                OPEN_PARENTHESIS_FORMAT_TRIMED + parameters + END_OF_METHOD;
-
-        // Compile the regex pattern
-        Pattern pattern = Pattern.compile(methodCallRegex);
-
-        // Match the line against the pattern
-        Matcher matcher = pattern.matcher(line);
-        return matcher.matches();
+    public static boolean matchMethodCallFormat(CharSequence line) {
+        LineTokenizer tokenizer = new LineTokenizer(line);
+        tokenizer.next();
+        if (!tokenizer.isLetterWord()) {
+            return false;
+        }
+        tokenizer.next();
+        if (!tokenizer.isPunctuation(OPEN_PARENTHESIS)) {
+            return false;
+        }
+        int states = ARGUMENTS_START;
+        for (int index = tokenizer.position(); index < line.length() && states != NO_STATE; index++) {
+            states = nextCallStates(states, line.charAt(index));
+        }
+        return (states & TERMINATED) != NO_STATE;
+    }
+
+    private static int nextCallStates(int states, char character) {
+        int next = NO_STATE;
+        boolean isWhitespace = LineTokenizer.isWhitespace(character);
+        if ((states & (ARGUMENTS_START | AFTER_COMMA)) != NO_STATE) {
+            next |= isWhitespace ? states & (ARGUMENTS_START | AFTER_COMMA) : argumentStartState(character);
+        }
+        if ((states & ARGUMENTS_START) != NO_STATE && character == CLOSE_PARENTHESIS) {
+            next |= CLOSED;
+        }
+        if ((states & IN_NAME) != NO_STATE && LineTokenizer.isWordCharacter(character)) {
+            next |= IN_NAME;
+        }
+        if ((states & IN_NUMBER) != NO_STATE && LineTokenizer.isDigit(character)) {
+            next |= IN_NUMBER;
+        }
+        next |= quotedStates(states, IN_STRING, DOUBLE_QUOTE, character);
+        next |= quotedStates(states, IN_CHAR, SINGLE_QUOTE, character);
+        // a name or a number ends right before the first character that cannot continue it
+        if ((states & (IN_NAME | IN_NUMBER | AFTER_ARGUMENT)) != NO_STATE) {
+            if (isWhitespace) {
+                next |= AFTER_ARGUMENT;
+            } else if (character == COMMA) {
+                next |= AFTER_COMMA;
+            } else if (character == CLOSE_PARENTHESIS) {
+                next |= CLOSED;
+            }
+        }
+        if ((states & CLOSED) != NO_STATE) {
+            if (isWhitespace) {
+                next |= CLOSED;
+            } else if (character == SEMICOLON) {
+                next |= TERMINATED;
+            }
+        }
+        if ((states & TERMINATED) != NO_STATE && isWhitespace) {
+            next |= TERMINATED;
+        }
+        return next;
+    }
+
+    private static int argumentStartState(char character) {
+        if (LineTokenizer.isLetter(character)) {
+            return IN_NAME;
+        }
+        if (LineTokenizer.isDigit(character)) {
+            return IN_NUMBER;
+        }
+        if (character == DOUBLE_QUOTE) {
+            return IN_STRING;
+        }
+        if (character == SINGLE_QUOTE) {
+            return IN_CHAR;
+        }
+        return NO_STATE;
+    }
+
+    // a quote inside a quoted argument may either close it or be part of its content
+    private static int quotedStates(int states, int quotedState, char quote, char character) {
+        if ((states & quotedState) == NO_STATE || LINE_TERMINATORS.indexOf(character) >= 0) {
+            return NO_STATE;
+        }
+        return character == quote ? quotedState | AFTER_ARGUMENT : quotedState;
     }
 
     /**
@@ -158,23 +350,44 @@ public class SJavaValidator {
      * @param line The line of code to check.
      * @return true if the line matches the method declaration format, otherwise false.
      */
-    // Method to check if a line matches the method declaration format
-    public static boolean matchMethodDeclarationFormat(String line) {
-        // Constructing the regex for a method declaration format
-        String identifier = METHOD_IDENTIFIER; // Valid method name
-        // Parameter regex: optional 'final', type, and valid identifier
-        String parameter = OPTIONAL_FINAL + INT_DOUBLE_BOOLEAN_CHAR_STRING + CLOSING_PARENTHESIS + identifier;
-        // Parameters list: optional first parameter, followed by zero or more comma-separated parameters
-        String parameters = parameter + ZERO_OR_MORE_COMMA_SEPARATED + parameter + CLOSE_REG_BRACE;
-        // Full method declaration regex
-        String methodDeclarationRegex = VOID + identifier + OPEN_PARENTHESIS_FORMAT_TRIMED +
-                parameters + END_OF_METHOD_DECLARATION;
-
-        // Compile the regex pattern
-        Pattern pattern = Pattern.compile(methodDeclarationRegex);
-
-        // Match the line against the pattern
-        Matcher matcher = pattern.matcher(line);
-        return matcher.matches();
+    public static boolean matchMethodDeclarationFormat(CharSequence line) {
+        LineTokenizer tokenizer = new LineTokenizer(line);
+        tokenizer.next();
+        if (!tokenizer.tokenEquals(VOID)) {
+            return false;
+        }
+        tokenizer.next();
+        if (!tokenizer.isLetterWord()) {
+            return false;
+        }
+        tokenizer.next();
+        if (!tokenizer.isPunctuation(OPEN_PARENTHESIS)) {
+            return false;
+        }
+        tokenizer.next();
+        if (!tokenizer.isPunctuation(CLOSE_PARENTHESIS)) {
+            while (true) {
+                if (tokenizer.tokenEquals(FINAL)) {
+                    tokenizer.next();
+                }
+                if (tokenizer.tokenType() != TokenType.TYPE) {
+                    return false;
+                }
+                tokenizer.next();
+                if (!tokenizer.isLetterWord()) {
+                    return false;
+                }
+                tokenizer.next();
+                if (tokenizer.isPunctuation(CLOSE_PARENTHESIS)) {
+                    break;
+                }
+                if (!tokenizer.isPunctuation(COMMA)) {
+                    return false;
+                }
+                tokenizer.next();
+            }
+        }
+        tokenizer.next();
+        return tokenizer.isPunctuation(OPEN_BRACE) && tokenizer.next() == TokenType.END;
     }
 }
@@ -0,0 +1,164 @@
+package ex5.main.file_manager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An s-Java source file, held in memory or memory-mapped once, and split into lines without copying its
+ * content. The s-Java grammar is ASCII only, so when the file holds only ASCII bytes every line is an
+ * {@link AsciiLine} view over its bytes, and no character is decoded or copied until a validator
+ * turns a part of a line into a String. A file holding other bytes is decoded once with the default
+ * charset (as {@link java.io.FileReader} does), and its lines are views over the decoded characters.
+ * Lines are split the same way {@link java.io.BufferedReader#readLine()} splits them: on '\n', '\r'
+ * or "\r\n". Iterating the lines keeps none of them, so the file may be read in several passes without
+ * holding its lines on the heap.
+ * A file too large to be decoded into memory is read by {@link SourceLines} instead.
+ */
+public class SourceFile implements Iterable<CharSequence> {
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int ASCII_MASK = 0x80;
+
+    private final ByteBuffer asciiContent;
+    private final CharBuffer decodedContent;
+    private final int limit;
+
+    private SourceFile(ByteBuffer content) {
+        if (isAscii(content)) {
+            this.asciiContent = content;
+            this.decodedContent = null;
+        } else {
+            this.asciiContent = null;
+            this.decodedContent = Charset.defaultCharset().decode(content.duplicate());
+        }
+        this.limit = asciiContent != null ? asciiContent.limit() : decodedContent.limit();
+    }
+
+    private SourceFile(CharBuffer content) {
+        this.asciiContent = null;
+        this.decodedContent = content;
+        this.limit = content.limit();
+    }
+
+    /**
+     * Reads a whole stream as a source file. The bytes are decoded the same way as the bytes of a
+     * read file.
+     *
+     * @param input The stream holding the s-Java code. It is read to its end, and not closed.
+     * @return The source file holding the read bytes.
+     * @throws IOException If the stream cannot be read.
+     */
+    public static SourceFile read(InputStream input) throws IOException {
+        return new SourceFile(ByteBuffer.wrap(input.readAllBytes()));
+    }
+
+    /**
+     * Wraps bytes that are already held in memory, or mapped, as a source file, without copying them.
+     * The bytes are decoded the same way as the bytes of a read file.
+     *
+     * @param content The bytes of the s-Java code, from the position to the limit of the buffer. They
+     *                must not change while the source file is used.
+     * @return The source file holding the given bytes.
+     */
+    public static SourceFile wrap(ByteBuffer content) {
+        return new SourceFile(content.slice());
+    }
+
+    /**
+     * Wraps s-Java code that is already held in memory as a source file, without copying it.
+     *
+     * @param code The s-Java code. It must not change while the source file is used.
+     * @return The source file whose lines are views over the given code.
+     */
+    public static SourceFile of(CharSequence code) {
+        return new SourceFile(CharBuffer.wrap(code));
+    }
+
+    /**
+     * Retrieves the size of the file content.
+     *
+     * @return The number of bytes of an ASCII file, or of decoded characters otherwise.
+     */
+    public int size() {
+        return limit;
+    }
+
+    /**
+     * Iterates over the lines of the file, without their line terminators. Every iteration scans the
+     * content again, and only the current line view is allocated, so a file may be iterated several
+     * times without keeping its lines on the heap.
+     *
+     * @return An iterator over views of the lines of the file.
+     */
+    @Override
+    public Iterator<CharSequence> iterator() {
+        return new Iterator<CharSequence>() {
+            private int lineStart = 0;
+
+            @Override
+            public boolean hasNext() {
+                return lineStart < limit;
+            }
+
+            @Override
+            public CharSequence next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int lineEnd = lineStart;
+                while (lineEnd < limit && !isLineTerminator(charAt(lineEnd))) {
+                    lineEnd++;
+                }
+                CharSequence line = asciiContent != null ?
+                        new AsciiLine(asciiContent, lineStart, lineEnd - lineStart) :
+                        decodedContent.subSequence(lineStart, lineEnd);
+                lineStart = lineEnd;
+                if (lineStart < limit) {
+                    boolean isCarriageReturn = charAt(lineStart) == CARRIAGE_RETURN;
+                    lineStart++;
+                    if (isCarriageReturn && lineStart < limit && charAt(lineStart) == LINE_FEED) {
+                        lineStart++;
+                    }
+                }
+                return line;
+            }
+        };
+    }
+
+    /**
+     * Retrieves all the lines of the file, without their line terminators.
+     *
+     * @return The lines of the file, as views over its content.
+     */
+    public List<CharSequence> getLines() {
+        List<CharSequence> lines = new ArrayList<>();
+        for (CharSequence line : this) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private int charAt(int index) {
+        return asciiContent != null ? asciiContent.get(index) : decodedContent.get(index);
+    }
+
+    private static boolean isLineTerminator(int character) {
+        return character == LINE_FEED || character == CARRIAGE_RETURN;
+    }
+
+    private static boolean isAscii(ByteBuffer content) {
+        for (int index = 0; index < content.limit(); index++) {
+            if ((content.get(index) & ASCII_MASK) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
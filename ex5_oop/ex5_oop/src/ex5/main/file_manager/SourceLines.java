@@ -0,0 +1,228 @@
+package ex5.main.file_manager;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The lines of an s-Java file, memory-mapped a window at a time, for files too large to be held in
+ * memory by a {@link SourceFile}. Every iteration maps the file again through its own channel, one window
+ * after the other, and a line that does not end within a window is carried over to the next one, which
+ * starts at the beginning of that line. So only the current window is mapped, and the file may be read in
+ * several passes whatever its size, even beyond the 2GB a single mapping holds.
+ * An ASCII line is an {@link AsciiLine} view over its window, and no character is copied until a
+ * validator turns a part of it into a String; a line holding other bytes is decoded on its own with the
+ * default charset, as {@link java.io.FileReader} decodes it. Lines are split the same way a
+ * {@link SourceFile} splits them: on '\n', '\r' or "\r\n".
+ * Since an iterator cannot throw a checked exception, a file that cannot be mapped while it is iterated
+ * fails with an {@link UncheckedIOException}, and a file truncated while it is iterated faults with the
+ * {@link InternalError} of a mapped buffer. The channels of the iterations are closed once they reach the
+ * end of the file, and those of unfinished iterations once the lines are closed.
+ */
+public class SourceLines implements Iterable<CharSequence>, Closeable {
+    /**
+     * The number of bytes mapped at a time by default.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int ASCII_MASK = 0x80;
+    // the largest buffer a single mapping holds
+    private static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+    private static final String ERROR_LINE_TOO_LONG = "Line is too long to be mapped: ";
+    private static final String ERROR_WINDOW_SIZE = "The window must hold at least one byte: ";
+
+    private final Path path;
+    private final int windowSize;
+    // the channels of the iterations that did not reach the end of the file yet
+    private final List<FileChannel> openChannels = new ArrayList<>();
+
+    /**
+     * Constructs the lines of a file, mapped {@value #DEFAULT_WINDOW_SIZE} bytes at a time. The file is not
+     * opened until the lines are iterated.
+     *
+     * @param path The path of the s-Java file.
+     */
+    public SourceLines(Path path) {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructs the lines of a file. The file is not opened until the lines are iterated.
+     *
+     * @param path       The path of the s-Java file.
+     * @param windowSize The number of bytes mapped at a time. A longer line is mapped whole.
+     */
+    public SourceLines(Path path, int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException(ERROR_WINDOW_SIZE + windowSize);
+        }
+        this.path = path;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Iterates over the lines of the file, without their line terminators, mapping the file from its
+     * beginning.
+     *
+     * @return An iterator over views of the lines of the file.
+     * @throws UncheckedIOException If the file cannot be opened, or cannot be mapped while it is iterated.
+     */
+    @Override
+    public Iterator<CharSequence> iterator() {
+        return new MappedLineIterator(open());
+    }
+
+    /**
+     * Closes the channels of the iterations that did not reach the end of the file.
+     *
+     * @throws IOException If a channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException error = null;
+        for (FileChannel channel : openChannels) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        openChannels.clear();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    // the file is opened as FileReader opens it, so it is reported with the same messages
+    private FileChannel open() {
+        try {
+            FileChannel channel = new FileInputStream(path.toFile()).getChannel();
+            openChannels.add(channel);
+            return channel;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long size(FileChannel channel) {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void close(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String decode(MappedByteBuffer window, int offset, int length) {
+        byte[] bytes = new byte[length];
+        window.get(offset, bytes);
+        return new String(bytes, Charset.defaultCharset());
+    }
+
+    private static boolean isLineTerminator(byte character) {
+        return character == LINE_FEED || character == CARRIAGE_RETURN;
+    }
+
+    // iterates over the lines of one pass, mapping the window holding the current line
+    private class MappedLineIterator implements Iterator<CharSequence> {
+        private final FileChannel channel;
+        private final long fileSize;
+        private MappedByteBuffer window;
+        private long windowStart = 0;
+        private long lineStart = 0;
+
+        MappedLineIterator(FileChannel channel) {
+            this.channel = channel;
+            this.fileSize = size(channel);
+            closeAtEnd();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return lineStart < fileSize;
+        }
+
+        @Override
+        public CharSequence next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (window == null) {
+                map(windowSize);
+            }
+            while (true) {
+                int start = (int) (lineStart - windowStart);
+                int limit = window.limit();
+                boolean isAscii = true;
+                int end = start;
+                while (end < limit && !isLineTerminator(window.get(end))) {
+                    isAscii &= (window.get(end) & ASCII_MASK) == 0;
+                    end++;
+                }
+                // a "\r" ending the window may be followed by the "\n" of the same terminator
+                boolean isComplete = windowStart + limit == fileSize || end + 1 < limit ||
+                        (end < limit && window.get(end) == LINE_FEED);
+                if (isComplete) {
+                    return nextLine(start, end, isAscii);
+                }
+                if (start == 0 && limit == MAX_WINDOW_SIZE) {
+                    throw new UncheckedIOException(new IOException(ERROR_LINE_TOO_LONG + path));
+                }
+                // the next window starts with this line, and holds at least twice the part already read
+                map((int) Math.min(MAX_WINDOW_SIZE, Math.max(windowSize, 2L * (limit - start))));
+            }
+        }
+
+        // the line between the given indexes of the window, moving the current line past its terminator
+        private CharSequence nextLine(int start, int end, boolean isAscii) {
+            CharSequence line = isAscii ? new AsciiLine(window, start, end - start) :
+                    decode(window, start, end - start);
+            int limit = window.limit();
+            if (end < limit) {
+                boolean isCarriageReturn = window.get(end) == CARRIAGE_RETURN;
+                end++;
+                if (isCarriageReturn && end < limit && window.get(end) == LINE_FEED) {
+                    end++;
+                }
+            }
+            lineStart = windowStart + end;
+            closeAtEnd();
+            return line;
+        }
+
+        // maps the window starting at the current line
+        private void map(int size) {
+            windowStart = lineStart;
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                        Math.min(size, fileSize - windowStart));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // closes the channel once the file is read, since a mapping stays valid after its channel is closed
+        private void closeAtEnd() {
+            if (!hasNext() && openChannels.remove(channel)) {
+                close(channel);
+            }
+        }
+    }
+}
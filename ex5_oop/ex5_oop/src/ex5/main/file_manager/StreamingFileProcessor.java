@@ -0,0 +1,219 @@
+package ex5.main.file_manager;
+
+import ex5.main.file_manager.functions.FunctionBodyValidator;
+import ex5.main.file_manager.functions.FunctionNames;
+import ex5.main.file_manager.functions.FunctionSyntaxException;
+import ex5.main.file_manager.functions.MethodMemo;
+import ex5.main.file_manager.functions.MethodTable;
+import ex5.main.file_manager.events.PhaseEvent;
+import ex5.main.file_manager.global_variables.GlobalVariables;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validates an s-Java file in bounded memory, for files too large to be held by {@link FileProcessor}.
+ * The lines are read in two passes and none of them is kept between the passes:
+ * 1. Checks the format of every line, and indexes the global variables and the method signatures.
+ * 2. Validates the method bodies one at a time, holding only the lines of the current method.
+ * So the peak memory depends on the largest method, not on the whole file.
+ * The errors are reported exactly as {@link FileProcessor} reports them, in the same phase order.
+ * Every pass is recorded as a {@link PhaseEvent} when a flight recording enables it: the first one as
+ * {@value #INDEX_DECLARATIONS_PHASE}, since it runs the first three phases line by line, and the second one
+ * as {@link ValidationPhase#FUNCTION_BODIES}.
+ */
+public class StreamingFileProcessor {
+    private static final String INDEX_DECLARATIONS_PHASE = "INDEX_DECLARATIONS";
+    private final Iterable<? extends CharSequence> sourceLines;
+    // the same interner parses both passes, so a name keeps its id between the passes
+    private final SymbolInterner symbols = new SymbolInterner();
+    private SymbolTable globalSymbols = new SymbolTable();
+    private MethodTable methods = new MethodTable();
+    private int linesNumber = 0;
+
+    /**
+     * Constructs a StreamingFileProcessor object.
+     *
+     * @param sourceLines All the lines of the file, without their line terminators. They are iterated
+     *                    twice, so they must be re-readable, such as the lines of a {@link SourceFile} or
+     *                    {@link SourceLines}.
+     */
+    public StreamingFileProcessor(Iterable<? extends CharSequence> sourceLines) {
+        this.sourceLines = sourceLines;
+    }
+
+    /**
+     * Validates the whole file.
+     *
+     * @throws SyntaxException         If a line has an invalid format, or a global variable declaration
+     *                                 is invalid.
+     * @throws FunctionSyntaxException If a function declaration or a function body is invalid.
+     */
+    public void validate() throws SyntaxException, FunctionSyntaxException {
+        indexDeclarations();
+        checkFunctionsBody();
+    }
+
+    /**
+     * Runs the first pass: checks the format of every line, and indexes the global variables and the
+     * method signatures.
+     *
+     * @throws SyntaxException         If a line has an invalid format, or a global variable declaration
+     *                                 is invalid.
+     * @throws FunctionSyntaxException If a function declaration is invalid.
+     */
+    public void indexDeclarations() throws SyntaxException, FunctionSyntaxException {
+        PhaseEvent event = beginPhaseEvent();
+        try {
+            indexLines();
+        } finally {
+            commitPhaseEvent(event, INDEX_DECLARATIONS_PHASE);
+        }
+    }
+
+    private void indexLines() throws SyntaxException, FunctionSyntaxException {
+        GlobalVariables globalVariables = new GlobalVariables();
+        FunctionNames functionNames = new FunctionNames();
+        // a later phase error is only reported when no earlier phase failed, as in FileProcessor
+        SyntaxException globalError = null;
+        FunctionSyntaxException functionNamesError = null;
+        int lineIndex = 0;
+        int lineNumber = 0;
+        for (CharSequence line : sourceLines) {
+            lineNumber++;
+            if (RowValidnessClass.isEmptyOrComment(line)) {
+                continue;
+            }
+            PatternRegistry.setPhase(ValidationPhase.LINE_FORMAT);
+            LineRecord record;
+            try {
+                LineKind kind = RowValidnessClass.checkLine(line, lineIndex, lineNumber);
+                record = LineParser.parse(line, kind, lineIndex, lineNumber, symbols);
+            } catch (SyntaxException e) {
+                throw e.atLine(lineNumber);
+            }
+            lineIndex++;
+            linesNumber = lineIndex;
+            if (globalError == null) {
+                PatternRegistry.setPhase(ValidationPhase.GLOBAL_VARIABLES);
+                try {
+                    globalVariables.addRecord(record);
+                } catch (SyntaxException e) {
+                    globalError = e;
+                }
+            }
+            if (functionNamesError == null) {
+                PatternRegistry.setPhase(ValidationPhase.FUNCTION_NAMES);
+                try {
+                    functionNames.addRecord(record);
+                } catch (FunctionSyntaxException e) {
+                    functionNamesError = e;
+                }
+            }
+        }
+        if (globalError != null) {
+            throw globalError;
+        }
+        globalVariables.checkAllScopesClosed();
+        if (functionNamesError != null) {
+            throw functionNamesError;
+        }
+        this.globalSymbols = globalVariables.getGlobalSymbols();
+        this.methods = functionNames.getMethods();
+    }
+
+    /**
+     * Runs the second pass: validates the method bodies one at a time. It must follow the first pass.
+     *
+     * @throws FunctionSyntaxException If a function body is invalid.
+     */
+    public void checkFunctionsBody() throws FunctionSyntaxException {
+        checkFunctionsBody(null);
+    }
+
+    /**
+     * Runs the second pass as {@link #checkFunctionsBody()} does, reusing the outcomes of the methods the
+     * memo already holds. It must follow the first pass.
+     *
+     * @param memo The memo of the method outcomes, or null to validate every method.
+     * @throws FunctionSyntaxException If a function body is invalid.
+     */
+    public void checkFunctionsBody(MethodMemo memo) throws FunctionSyntaxException {
+        PatternRegistry.setPhase(ValidationPhase.FUNCTION_BODIES);
+        PhaseEvent event = beginPhaseEvent();
+        try {
+            checkMethods(memo);
+        } finally {
+            commitPhaseEvent(event, ValidationPhase.FUNCTION_BODIES.name());
+        }
+    }
+
+    private void checkMethods(MethodMemo memo) throws FunctionSyntaxException {
+        FunctionBodyValidator functionBodyValidator = new FunctionBodyValidator(List.of(),
+                                                                                globalSymbols,
+                                                                                methods,
+                                                                                memo);
+        List<LineRecord> methodLines = new ArrayList<>();
+        int braceBalance = 0;
+        int lineIndex = 0;
+        int lineNumber = 0;
+        for (CharSequence line : sourceLines) {
+            lineNumber++;
+            if (RowValidnessClass.isEmptyOrComment(line)) {
+                continue;
+            }
+            // the format of every line was already checked by the first pass
+            LineKind kind = SJavaValidator.classify(line);
+            if (methodLines.isEmpty() && kind != LineKind.METHOD_DECLARATION) {
+                lineIndex++;
+                continue;
+            }
+            methodLines.add(LineParser.parse(line, kind, lineIndex, lineNumber, symbols));
+            lineIndex++;
+            if (kind == LineKind.METHOD_DECLARATION || kind == LineKind.CONDITION) {
+                braceBalance++;
+            }
+            if (kind == LineKind.END_OF_SCOPE) {
+                braceBalance--;
+            }
+            if (braceBalance == 0) {
+                validateMethod(functionBodyValidator, methodLines);
+            }
+        }
+        if (!methodLines.isEmpty()) {
+            validateMethod(functionBodyValidator, methodLines);
+        }
+    }
+
+    /**
+     * Retrieves the number of code lines read by the first pass, which both passes process.
+     *
+     * @return The number of lines of the file read so far, blank and comment lines excluded.
+     */
+    public int getLinesNumber() {
+        return linesNumber;
+    }
+
+    private static PhaseEvent beginPhaseEvent() {
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    // the fields are only set when the event is recorded
+    private void commitPhaseEvent(PhaseEvent event, String phase) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase;
+            event.lines = linesNumber;
+            event.commit();
+        }
+    }
+
+    private static void validateMethod(FunctionBodyValidator functionBodyValidator,
+                                       List<LineRecord> methodLines) throws FunctionSyntaxException {
+        functionBodyValidator.validateMethod(methodLines, methodLines.get(0).getMethodName());
+        // drop the method before reading the next one
+        methodLines.clear();
+    }
+}
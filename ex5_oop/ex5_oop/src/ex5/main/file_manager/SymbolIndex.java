@@ -0,0 +1,107 @@
+package ex5.main.file_manager;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash table from interned name ids (see {@link SymbolInterner}) to int slots,
+ * without boxing. A name is never removed from the index: it is mapped to {@link #NO_SLOT} instead,
+ * which keeps the probing simple, as the names of a file are few and are mapped again and again.
+ */
+public class SymbolIndex {
+    /**
+     * The slot of a name that is not mapped.
+     */
+    public static final int NO_SLOT = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int GROWTH_FACTOR = 2;
+    // the table is grown once it is half full
+    private static final int MAX_LOAD_DIVISOR = 2;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final int EMPTY = -1;
+
+    private int[] symbols;
+    private int[] slots;
+    private int size = 0;
+
+    /**
+     * Constructs an empty index.
+     */
+    public SymbolIndex() {
+        symbols = new int[INITIAL_CAPACITY];
+        slots = new int[INITIAL_CAPACITY];
+        Arrays.fill(symbols, EMPTY);
+    }
+
+    private SymbolIndex(SymbolIndex other) {
+        symbols = other.symbols.clone();
+        slots = other.slots.clone();
+        size = other.size;
+    }
+
+    /**
+     * Retrieves the slot of a name.
+     *
+     * @param symbol The id of the name, or {@link SymbolInterner#NO_SYMBOL}.
+     * @return The slot the name is mapped to, or {@link #NO_SLOT}.
+     */
+    public int get(int symbol) {
+        if (symbol == SymbolInterner.NO_SYMBOL) {
+            return NO_SLOT;
+        }
+        int position = position(symbol);
+        return symbols[position] == EMPTY ? NO_SLOT : slots[position];
+    }
+
+    /**
+     * Maps a name to a slot, replacing its former slot.
+     *
+     * @param symbol The id of the name.
+     * @param slot   The slot of the name, or {@link #NO_SLOT} to unmap it.
+     */
+    public void put(int symbol, int slot) {
+        int position = position(symbol);
+        if (symbols[position] == EMPTY) {
+            symbols[position] = symbol;
+            size++;
+        }
+        slots[position] = slot;
+        if (MAX_LOAD_DIVISOR * size > symbols.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Copies the index, so that the copy may be read by other threads while this index changes.
+     *
+     * @return An independent copy of the index.
+     */
+    public SymbolIndex snapshot() {
+        return new SymbolIndex(this);
+    }
+
+    // the position of the name in the table, or the empty position where it would be added
+    private int position(int symbol) {
+        int mask = symbols.length - 1;
+        int hash = symbol * HASH_MULTIPLIER;
+        int position = (hash ^ (hash >>> (Integer.SIZE / 2))) & mask;
+        while (symbols[position] != EMPTY && symbols[position] != symbol) {
+            position = (position + 1) & mask;
+        }
+        return position;
+    }
+
+    private void grow() {
+        int[] oldSymbols = symbols;
+        int[] oldSlots = slots;
+        symbols = new int[GROWTH_FACTOR * oldSymbols.length];
+        slots = new int[symbols.length];
+        Arrays.fill(symbols, EMPTY);
+        for (int oldPosition = 0; oldPosition < oldSymbols.length; oldPosition++) {
+            if (oldSymbols[oldPosition] != EMPTY) {
+                int position = position(oldSymbols[oldPosition]);
+                symbols[position] = oldSymbols[oldPosition];
+                slots[position] = oldSlots[oldPosition];
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ex5.main.file_manager;
+
+import java.util.Arrays;
+
+/**
+ * Interns the identifiers of a file into dense int ids: the first identifier gets 0, the next new
+ * one 1, and so on, and an identifier met again gets its id back. {@link LineParser} interns every name
+ * of a line while it parses it, so the validators compare and look up names by id and never by text.
+ * An identifier is read straight from the span of its line, and a String is only created for an
+ * identifier that was not seen before.
+ * An interner is filled by a single thread, while the lines are parsed; once they are, it may be read
+ * by any number of threads.
+ */
+public class SymbolInterner {
+    /**
+     * The id of a span that is not an identifier, such as a literal value.
+     */
+    public static final int NO_SYMBOL = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int GROWTH_FACTOR = 2;
+    // the table is grown once it is half full
+    private static final int MAX_LOAD_DIVISOR = 2;
+    private static final int HASH_BASE = 31;
+    private static final int EMPTY = -1;
+
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int[] table = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Constructs an empty interner.
+     */
+    public SymbolInterner() {
+        Arrays.fill(table, EMPTY);
+    }
+
+    /**
+     * Interns the identifier found in a span of a line.
+     *
+     * @param line  The text of the line.
+     * @param start The start of the identifier in the line.
+     * @param end   The end of the identifier in the line, exclusive.
+     * @return The id of the identifier.
+     */
+    public int intern(CharSequence line, int start, int end) {
+        int hash = hash(line, start, end);
+        int mask = table.length - 1;
+        int position = hash & mask;
+        while (table[position] != EMPTY) {
+            int symbol = table[position];
+            if (hashes[symbol] == hash && matches(names[symbol], line, start, end)) {
+                return symbol;
+            }
+            position = (position + 1) & mask;
+        }
+        int symbol = size++;
+        if (symbol == names.length) {
+            names = Arrays.copyOf(names, GROWTH_FACTOR * symbol);
+            hashes = Arrays.copyOf(hashes, GROWTH_FACTOR * symbol);
+        }
+        names[symbol] = line.subSequence(start, end).toString();
+        hashes[symbol] = hash;
+        table[position] = symbol;
+        if (MAX_LOAD_DIVISOR * size > table.length) {
+            rehash();
+        }
+        return symbol;
+    }
+
+    /**
+     * Retrieves the identifier of a given id.
+     *
+     * @param symbol An id returned by {@link #intern}.
+     * @return The identifier.
+     */
+    public String nameOf(int symbol) {
+        return names[symbol];
+    }
+
+    /**
+     * Retrieves the number of interned identifiers.
+     *
+     * @return The number of identifiers, which is also the next id to be given.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void rehash() {
+        table = new int[GROWTH_FACTOR * table.length];
+        Arrays.fill(table, EMPTY);
+        int mask = table.length - 1;
+        for (int symbol = 0; symbol < size; symbol++) {
+            int position = hashes[symbol] & mask;
+            while (table[position] != EMPTY) {
+                position = (position + 1) & mask;
+            }
+            table[position] = symbol;
+        }
+    }
+
+    // the same hash as String.hashCode, spread so that close hashes do not cluster in the table
+    private static int hash(CharSequence line, int start, int end) {
+        int hash = 0;
+        for (int index = start; index < end; index++) {
+            hash = HASH_BASE * hash + line.charAt(index);
+        }
+        return hash ^ (hash >>> (Integer.SIZE / 2));
+    }
+
+    private static boolean matches(String name, CharSequence line, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int index = 0; index < name.length(); index++) {
+            if (name.charAt(index) != line.charAt(start + index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
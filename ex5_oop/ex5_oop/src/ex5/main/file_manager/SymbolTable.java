@@ -0,0 +1,151 @@
+package ex5.main.file_manager;
+
+import java.util.Arrays;
+
+/**
+ * A table of variables, keyed by the interned ids of their names (see {@link SymbolInterner}).
+ * Every declared variable takes the next slot of the table, and its type code, final flag and
+ * initialized flag are kept in parallel primitive arrays indexed by the slot, so no object is
+ * allocated per variable. The slot of a name is found through a {@link SymbolIndex}.
+ * A name may be declared again to shadow its earlier declaration, and {@link #truncate} drops the
+ * latest declarations and makes the ones they shadowed visible again, so a single table holds all
+ * the nested scopes of a method.
+ */
+public class SymbolTable {
+    /**
+     * The slot of a name that is not declared.
+     */
+    public static final int NO_SLOT = SymbolIndex.NO_SLOT;
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int GROWTH_FACTOR = 2;
+
+    private int[] symbols;
+    private byte[] types;
+    private boolean[] finals;
+    private boolean[] initialized;
+    // the slot that was visible for the same name before a slot was declared
+    private int[] shadowed;
+    private int size;
+    private final SymbolIndex index;
+
+    /**
+     * Constructs an empty symbol table.
+     */
+    public SymbolTable() {
+        symbols = new int[INITIAL_CAPACITY];
+        types = new byte[INITIAL_CAPACITY];
+        finals = new boolean[INITIAL_CAPACITY];
+        initialized = new boolean[INITIAL_CAPACITY];
+        shadowed = new int[INITIAL_CAPACITY];
+        index = new SymbolIndex();
+    }
+
+    private SymbolTable(SymbolTable other) {
+        symbols = other.symbols.clone();
+        types = other.types.clone();
+        finals = other.finals.clone();
+        initialized = other.initialized.clone();
+        shadowed = other.shadowed.clone();
+        size = other.size;
+        index = other.index.snapshot();
+    }
+
+    /**
+     * Declares a variable, shadowing any earlier declaration of the same name.
+     *
+     * @param symbol        The id of the name of the variable.
+     * @param type          The type of the variable.
+     * @param isFinal       Whether the variable is final.
+     * @param isInitialized Whether the variable is given a value by its declaration.
+     * @return The slot of the variable.
+     */
+    public int declare(int symbol, VariableType type, boolean isFinal, boolean isInitialized) {
+        if (size == symbols.length) {
+            int capacity = GROWTH_FACTOR * size;
+            symbols = Arrays.copyOf(symbols, capacity);
+            types = Arrays.copyOf(types, capacity);
+            finals = Arrays.copyOf(finals, capacity);
+            initialized = Arrays.copyOf(initialized, capacity);
+            shadowed = Arrays.copyOf(shadowed, capacity);
+        }
+        int slot = size++;
+        symbols[slot] = symbol;
+        types[slot] = type.getCode();
+        finals[slot] = isFinal;
+        initialized[slot] = isInitialized;
+        shadowed[slot] = index.get(symbol);
+        index.put(symbol, slot);
+        return slot;
+    }
+
+    /**
+     * Finds the visible declaration of a name.
+     *
+     * @param symbol The id of the name, or {@link SymbolInterner#NO_SYMBOL}.
+     * @return The slot of the latest declaration of the name that was not dropped, or {@link #NO_SLOT}.
+     */
+    public int find(int symbol) {
+        return index.get(symbol);
+    }
+
+    /**
+     * Drops the latest declarations, keeping only the given number of slots, and makes visible again
+     * the declarations they shadowed.
+     *
+     * @param newSize The number of slots to keep, at most {@link #size()}.
+     */
+    public void truncate(int newSize) {
+        while (size > newSize) {
+            size--;
+            index.put(symbols[size], shadowed[size]);
+        }
+    }
+
+    /**
+     * Retrieves the number of declared slots.
+     *
+     * @return The number of slots.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the type of a variable.
+     *
+     * @param slot The slot of the variable.
+     * @return The type of the variable.
+     */
+    public VariableType getType(int slot) {
+        return VariableType.fromCode(types[slot]);
+    }
+
+    /**
+     * Checks whether a variable is final.
+     *
+     * @param slot The slot of the variable.
+     * @return true if the variable is final, false otherwise.
+     */
+    public boolean isFinal(int slot) {
+        return finals[slot];
+    }
+
+    /**
+     * Checks whether a variable was given a value by its declaration.
+     *
+     * @param slot The slot of the variable.
+     * @return true if the variable is initialized, false otherwise.
+     */
+    public boolean isInitialized(int slot) {
+        return initialized[slot];
+    }
+
+    /**
+     * Copies the table, so that the copy may be read by other threads while this table changes.
+     *
+     * @return An independent copy of the table.
+     */
+    public SymbolTable snapshot() {
+        return new SymbolTable(this);
+    }
+}
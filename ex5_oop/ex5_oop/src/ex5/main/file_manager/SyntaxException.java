@@ -9,6 +9,11 @@ package ex5.main.file_manager;
  * @version 1.0
  */
 public class SyntaxException extends RuntimeException {
+    /**
+     * The line number of an error that is not found in a specific line.
+     */
+    public static final int UNKNOWN_LINE = 0;
+    private int lineNumber = UNKNOWN_LINE;
 
     /**
      * Constructs a new SyntaxException with the specified error message.
@@ -18,4 +23,26 @@ public class SyntaxException extends RuntimeException {
     public SyntaxException(String message) {
         super(message);
     }
+
+    /**
+     * Attaches the number of the line the error was found in, unless the error already holds one.
+     *
+     * @param lineNumber The 1-based number of the line in the source file.
+     * @return This exception, to be rethrown.
+     */
+    public SyntaxException atLine(int lineNumber) {
+        if (this.lineNumber == UNKNOWN_LINE) {
+            this.lineNumber = lineNumber;
+        }
+        return this;
+    }
+
+    /**
+     * Retrieves the number of the line the error was found in.
+     *
+     * @return The 1-based number of the line, or {@link #UNKNOWN_LINE} if it is not known.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
 }
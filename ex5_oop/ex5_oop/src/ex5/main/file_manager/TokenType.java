@@ -0,0 +1,35 @@
+package ex5.main.file_manager;
+
+/**
+ * The kinds of tokens produced by the {@link LineTokenizer} when scanning a single s-Java line.
+ */
+public enum TokenType {
+    /**
+     * One of the s-Java keywords: void, final, if, while and return.
+     */
+    KEYWORD,
+    /**
+     * One of the s-Java variable types: int, double, boolean, char and String.
+     */
+    TYPE,
+    /**
+     * A word that is neither a keyword, a type nor a boolean literal.
+     */
+    IDENTIFIER,
+    /**
+     * A numeric, string, char or boolean literal.
+     */
+    LITERAL,
+    /**
+     * A single punctuation character: one of ( ) { } , ; =
+     */
+    PUNCTUATION,
+    /**
+     * A character that starts no valid token, or an unterminated string or char literal.
+     */
+    INVALID,
+    /**
+     * The end of the line.
+     */
+    END
+}
@@ -0,0 +1,24 @@
+package ex5.main.file_manager;
+
+/**
+ * The phases a file goes through in {@link FileProcessor}, used to attribute the regular expression
+ * evaluations counted by {@link PatternRegistry}.
+ */
+public enum ValidationPhase {
+    /**
+     * Reading the lines, checking their format and parsing them into records.
+     */
+    LINE_FORMAT,
+    /**
+     * Validating the global variable declarations.
+     */
+    GLOBAL_VARIABLES,
+    /**
+     * Collecting the method declarations.
+     */
+    FUNCTION_NAMES,
+    /**
+     * Validating the method bodies.
+     */
+    FUNCTION_BODIES
+}
@@ -0,0 +1,97 @@
+package ex5.main.file_manager;
+
+/**
+ * The types of s-Java variables. A type is stored in the symbol tables as its one-byte code, see
+ * {@link #getCode()}, and types are compared by identity instead of by their names.
+ * Every type also keeps the set of literal types it implicitly widens, see {@link #accepts}.
+ */
+public enum VariableType {
+    /**
+     * The int type.
+     */
+    INT("int"),
+    /**
+     * The double type, which also accepts int literals.
+     */
+    DOUBLE("double", INT),
+    /**
+     * The boolean type, which also accepts int and double literals.
+     */
+    BOOLEAN("boolean", INT, DOUBLE),
+    /**
+     * The char type.
+     */
+    CHAR("char"),
+    /**
+     * The String type.
+     */
+    STRING("String");
+
+    private static final VariableType[] BY_CODE = values();
+    private final String name;
+    // a bit per type code, set for this type and for every type it widens
+    private final int acceptedCodes;
+
+    VariableType(String name, VariableType... widenedTypes) {
+        this.name = name;
+        int codes = 1 << ordinal();
+        for (VariableType widenedType : widenedTypes) {
+            codes |= 1 << widenedType.ordinal();
+        }
+        this.acceptedCodes = codes;
+    }
+
+    /**
+     * Retrieves the name of the type, as written in s-Java code.
+     *
+     * @return The name of the type.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Checks whether a literal of a given type may be given to a variable of this type: a literal of
+     * the same type, or an int literal for a double, or an int or double literal for a boolean.
+     *
+     * @param literalType The type of the literal, or null for an invalid literal.
+     * @return true if the literal is compatible with this type, false otherwise.
+     */
+    public boolean accepts(VariableType literalType) {
+        return literalType != null && (acceptedCodes & (1 << literalType.ordinal())) != 0;
+    }
+
+    /**
+     * Retrieves the one-byte code of the type.
+     *
+     * @return The code of the type.
+     */
+    public byte getCode() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Retrieves the type of a given code.
+     *
+     * @param code A code returned by {@link #getCode()}.
+     * @return The type of the code.
+     */
+    public static VariableType fromCode(byte code) {
+        return BY_CODE[code];
+    }
+
+    /**
+     * Retrieves the type of a given name.
+     *
+     * @param name The name of the type, as written in s-Java code.
+     * @return The type of the name, or null if the name is not a type.
+     */
+    public static VariableType of(String name) {
+        for (VariableType type : BY_CODE) {
+            if (type.name.equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
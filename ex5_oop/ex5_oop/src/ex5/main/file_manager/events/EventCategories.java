@@ -0,0 +1,20 @@
+package ex5.main.file_manager.events;
+
+/**
+ * The categories the Java Flight Recorder events of the validator are grouped under, so that tools such
+ * as JDK Mission Control show them together.
+ */
+public class EventCategories {
+    /**
+     * The top category of all the events of the validator.
+     */
+    public static final String SJAVAC = "s-Java Compiler";
+    /**
+     * The events of the validation phases and of the method bodies.
+     */
+    public static final String VALIDATION = "Validation";
+    /**
+     * The events of the line checks.
+     */
+    public static final String LINE_FORMAT = "Line Format";
+}
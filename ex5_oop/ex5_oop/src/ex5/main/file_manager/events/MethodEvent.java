@@ -0,0 +1,52 @@
+package ex5.main.file_manager.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event spanning the validation of a single method body by
+ * {@link ex5.main.file_manager.functions.FunctionBodyValidator}, on whichever thread validates it.
+ */
+@Name(MethodEvent.NAME)
+@Label("Method Validation")
+@Category({EventCategories.SJAVAC, EventCategories.VALIDATION})
+@Description("The validation of a single s-Java method body")
+@StackTrace(false)
+public class MethodEvent extends Event {
+    /**
+     * The name of the event, by which a recording enables it.
+     */
+    public static final String NAME = "ex5.sjavac.Method";
+    /**
+     * The maximal nesting depth of a method whose body failed before it was fully validated.
+     */
+    public static final int UNKNOWN_DEPTH = -1;
+
+    /**
+     * The name of the method.
+     */
+    @Label("Method")
+    public String method;
+
+    /**
+     * The number of code lines of the method, from its declaration to its closing brace.
+     */
+    @Label("Lines")
+    public int lines;
+
+    /**
+     * The maximal nesting depth of the if/while blocks of the method, or {@link #UNKNOWN_DEPTH}.
+     */
+    @Label("Maximal Depth")
+    public int maxDepth = UNKNOWN_DEPTH;
+
+    /**
+     * Whether the method body is valid.
+     */
+    @Label("Valid")
+    public boolean isValid;
+}
@@ -0,0 +1,39 @@
+package ex5.main.file_manager.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event spanning a single step of {@link ex5.main.file_manager.FileProcessor},
+ * named after its {@link ex5.main.file_manager.ValidationPhase}, or a single pass of
+ * {@link ex5.main.file_manager.StreamingFileProcessor}.
+ * As every event of the validator, it costs next to nothing while no recording enables it: its fields are
+ * only set once the event is known to be recorded.
+ */
+@Name(PhaseEvent.NAME)
+@Label("Validation Phase")
+@Category({EventCategories.SJAVAC, EventCategories.VALIDATION})
+@Description("A phase of the validation of an s-Java file")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+    /**
+     * The name of the event, by which a recording enables it.
+     */
+    public static final String NAME = "ex5.sjavac.Phase";
+
+    /**
+     * The name of the phase, such as LINE_FORMAT, or INDEX_DECLARATIONS for the first streaming pass.
+     */
+    @Label("Phase")
+    public String phase;
+
+    /**
+     * The number of code lines the phase processes.
+     */
+    @Label("Lines")
+    public int lines;
+}
@@ -0,0 +1,49 @@
+package ex5.main.file_manager.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event spanning the format check of a single line by
+ * {@link ex5.main.file_manager.RowValidnessClass#checkLineFormat}, recorded only when the check lasts at
+ * least the threshold of the event, {@value #DEFAULT_THRESHOLD} unless the recording sets another one.
+ */
+@Name(SlowLineEvent.NAME)
+@Label("Slow Line")
+@Category({EventCategories.SJAVAC, EventCategories.LINE_FORMAT})
+@Description("The format check of a line that lasted at least the threshold")
+@Threshold(SlowLineEvent.DEFAULT_THRESHOLD)
+@StackTrace(false)
+public class SlowLineEvent extends Event {
+    /**
+     * The name of the event, by which a recording enables it.
+     */
+    public static final String NAME = "ex5.sjavac.SlowLine";
+    /**
+     * The duration from which a line check is recorded.
+     */
+    public static final String DEFAULT_THRESHOLD = "1 ms";
+
+    /**
+     * The 1-based number of the line in the file.
+     */
+    @Label("Line Number")
+    public int lineNumber;
+
+    /**
+     * The number of characters of the line.
+     */
+    @Label("Length")
+    public int length;
+
+    /**
+     * The format that accepted the line, or INVALID if none did.
+     */
+    @Label("Format")
+    public String format;
+}
@@ -0,0 +1,57 @@
+package ex5.main.file_manager.functions;
+
+import ex5.main.file_manager.LineKind;
+import ex5.main.file_manager.LineRecord;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A brace-matching table over a list of parsed lines, built in a single pass.
+ * For every line that opens a block (a method declaration or an if/while line) it holds the index
+ * of the line that closes the block, so the validators jump straight to the end of a block instead
+ * of scanning its lines again at every nesting level.
+ */
+public class BlockIndex {
+    /**
+     * Marks a line that opens no block, or a block that is never closed.
+     */
+    public static final int NO_MATCH = -1;
+    private static final int INITIAL_STACK_LENGTH = 16;
+    private static final int GROWTH_FACTOR = 2;
+
+    private final int[] blockEnds;
+
+    /**
+     * Builds the brace-matching table of the given lines.
+     *
+     * @param lines The parsed lines.
+     */
+    public BlockIndex(List<LineRecord> lines) {
+        blockEnds = new int[lines.size()];
+        Arrays.fill(blockEnds, NO_MATCH);
+        int[] openLines = new int[INITIAL_STACK_LENGTH];
+        int depth = 0;
+        for (int index = 0; index < lines.size(); index++) {
+            LineKind kind = lines.get(index).getKind();
+            if (kind == LineKind.METHOD_DECLARATION || kind == LineKind.CONDITION) {
+                if (depth == openLines.length) {
+                    openLines = Arrays.copyOf(openLines, GROWTH_FACTOR * depth);
+                }
+                openLines[depth++] = index;
+            } else if (kind == LineKind.END_OF_SCOPE && depth > 0) {
+                blockEnds[openLines[--depth]] = index;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the closing line of the block opened by the given line.
+     *
+     * @param openingLine The index of a line that opens a block.
+     * @return The index of the matching closing line, or {@link #NO_MATCH} if there is none.
+     */
+    public int getBlockEnd(int openingLine) {
+        return blockEnds[openingLine];
+    }
+}
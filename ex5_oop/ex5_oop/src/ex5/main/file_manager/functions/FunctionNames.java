@@ -1,11 +1,9 @@
 package ex5.main.file_manager.functions;
 
-import ex5.main.Variable;
-import ex5.main.file_manager.RowValidnessClass;
+import ex5.main.file_manager.LineKind;
+import ex5.main.file_manager.LineRecord;
 
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
 
 /**
  * The FunctionNames class extracts and validates function declarations from s-Java code.
@@ -13,35 +11,26 @@ import java.util.regex.Pattern;
  */
 public class FunctionNames {
 
-    private static final String ERROR_INVALID_DECLARATION = "Invalid function declaration:" +
-            " Missing parentheses.";
-    private static final String ERROR_INVALID_SYNTAX = "Invalid function declaration syntax: ";
     private static final String ERROR_DUPLICATE_FUNCTION = "Duplicate function name: ";
-    private static final String ERROR_INVALID_PARAMETER_SYNTAX = "Invalid function parameter syntax: ";
-    private static final String ERROR_INVALID_PARAMETER = "Invalid parameter declaration: ";
-    private static final String ERROR_INVALID_PARAMETER_TYPE = "Invalid parameter type : ";
-    private static final String FUNCTION_DECLARATION_PATTERN = "^\\s*void\\s+([a-zA-Z]\\w*)\\s*$";
-    private static final String PARAMETER_PATTERN = "^\\s*((\\s*(int|double|boolean|char|String)\\s+" +
-            "[a-zA-Z]\\w*\\s*)(,\\s*(int|double|boolean|char|String)\\s+[a-zA-Z]\\w*\\s*)*)?\\)\\s*\\{\\s*$";
-    private static final String SPLIT_PATTERN = "\\("; // Split into left and right parts at the first '('
-    private static final String VAR_TYPES = "int|double|boolean|char|String";
-    private static final int ONE = 1;
-    private static final int TWO = 2;
-    private static final String COMA_SEPEREOR_PATTERN = "\\s*,\\s*";
-    private static final String SPACES_PATTERN = "\\s+";
     //    private fields
-    private final int linesNumber;
-    private final HashMap<String, List<Map<String, Variable<Object>>>> functionsMap = new HashMap<>();
-    private final List<String> linesArray;
+    private final MethodTable methods = new MethodTable();
+    private final List<LineRecord> records;
 
     /**
      * Constructor for FunctionNames.
      *
-     * @param linesArray List of code lines.
+     * @param records The parsed records of the code lines.
      */
-    public FunctionNames(List<String> linesArray) {
-        this.linesArray = linesArray;
-        this.linesNumber = linesArray.size();
+    public FunctionNames(List<LineRecord> records) {
+        this.records = records;
+    }
+
+    /**
+     * Constructor for FunctionNames that are fed one line at a time through {@link #addRecord},
+     * without holding the lines of the file.
+     */
+    public FunctionNames() {
+        this(List.of());
     }
 
     /**
@@ -50,73 +39,41 @@ public class FunctionNames {
      * @throws FunctionSyntaxException if a function declaration is invalid.
      */
     public void getAllFunctionsNames() throws FunctionSyntaxException {
-        for (int index = 0; index < linesNumber; index++) {
-            String line = linesArray.get(index);
-            if (RowValidnessClass.isStartFunction(line)) {
-                checkFunctionDeclaration(line);
-            }
+        for (LineRecord record : records) {
+            addRecord(record);
         }
     }
 
     /**
-     * Retrieves the map of function names and their associated parameter lists.
+     * Processes the next line of code, validating and adding it to the method table if it is a
+     * function declaration.
      *
-     * @return HashMap containing function names and parameter details.
+     * @param record The parsed record of the next code line.
+     * @throws FunctionSyntaxException if the function declaration is invalid.
      */
-    public HashMap<String, List<Map<String, Variable<Object>>>> getFunctionsMap() {
-        return functionsMap;
-    }
-
-    private void checkFunctionDeclaration(String line) throws FunctionSyntaxException {
-        String[] splitted = line.split(SPLIT_PATTERN, TWO);
-        if (splitted.length != TWO) {
-            throw new FunctionSyntaxException(ERROR_INVALID_DECLARATION);
-        }
-        String functionLeftPart = splitted[0];
-        String functionRightPart = splitted[ONE].trim();
-
-        Pattern leftPattern = Pattern.compile(FUNCTION_DECLARATION_PATTERN);
-        Matcher matcher = leftPattern.matcher(functionLeftPart);
-        if (!matcher.matches()) {
-            throw new FunctionSyntaxException(ERROR_INVALID_SYNTAX + line);
-        }
-
-        String functionName = matcher.group(ONE);
-
-        if (functionsMap.containsKey(functionName)) {
-            throw new FunctionSyntaxException(ERROR_DUPLICATE_FUNCTION + functionName);
-        }
-
-        Pattern paramPattern = Pattern.compile(PARAMETER_PATTERN);
-        Matcher paramMatcher = paramPattern.matcher(functionRightPart);
-        if (!paramMatcher.matches()) {
-            throw new FunctionSyntaxException(ERROR_INVALID_PARAMETER_SYNTAX + line);
+    public void addRecord(LineRecord record) throws FunctionSyntaxException {
+        if (record.getKind() == LineKind.METHOD_DECLARATION) {
+            try {
+                checkFunctionDeclaration(record);
+            } catch (FunctionSyntaxException e) {
+                throw e.atLine(record.getLineNumber());
+            }
         }
+    }
 
-        String paramList = paramMatcher.group(1);
-        List<Map<String, Variable<Object>>> parameterList = new ArrayList<>();
-
-        if (paramList != null && !paramList.isEmpty()) {
-            String[] params = paramList.split(COMA_SEPEREOR_PATTERN);
-            for (String param : params) {
-                String[] paramParts = param.trim().split(SPACES_PATTERN);
-                if (paramParts.length != TWO) {
-                    throw new FunctionSyntaxException(ERROR_INVALID_PARAMETER + param);
-                }
-
-                String paramType = paramParts[0];
-
-                String paramName = paramParts[ONE];
-                if (!paramType.matches(VAR_TYPES)) {
-                    throw new FunctionSyntaxException(ERROR_INVALID_PARAMETER_TYPE + paramType);
-                }
+    /**
+     * Retrieves the signatures of the declared functions.
+     *
+     * @return The method table of the functions, keyed by the interned ids of their names.
+     */
+    public MethodTable getMethods() {
+        return methods;
+    }
 
-                Variable<Object> variable = new Variable<>(null, paramType, false);
-                Map<String, Variable<Object>> varMap = new HashMap<>();
-                varMap.put(paramName, variable);
-                parameterList.add(varMap);
-            }
+    private void checkFunctionDeclaration(LineRecord record) throws FunctionSyntaxException {
+        if (methods.find(record.getMethodSymbol()) != MethodTable.NO_METHOD) {
+            throw new FunctionSyntaxException(ERROR_DUPLICATE_FUNCTION + record.getMethodName());
         }
-        functionsMap.put(functionName, parameterList);
+        methods.declare(record);
     }
 }
@@ -1,11 +1,14 @@
 package ex5.main.file_manager.functions;
 
+import ex5.main.file_manager.SyntaxException;
+
 /**
  * Exception thrown when a function's syntax is invalid.
  * This exception is a subclass of {@link RuntimeException} and is used to
  * indicate errors related to incorrect function syntax.
  */
 public class FunctionSyntaxException extends RuntimeException {
+    private int lineNumber = SyntaxException.UNKNOWN_LINE;
 
     /**
      * Constructs a new FunctionSyntaxException with the specified error message.
@@ -15,4 +18,26 @@ public class FunctionSyntaxException extends RuntimeException {
     public FunctionSyntaxException(String message) {
         super(message);
     }
+
+    /**
+     * Attaches the number of the line the error was found in, unless the error already holds one.
+     *
+     * @param lineNumber The 1-based number of the line in the source file.
+     * @return This exception, to be rethrown.
+     */
+    public FunctionSyntaxException atLine(int lineNumber) {
+        if (this.lineNumber == SyntaxException.UNKNOWN_LINE) {
+            this.lineNumber = lineNumber;
+        }
+        return this;
+    }
+
+    /**
+     * Retrieves the number of the line the error was found in.
+     *
+     * @return The 1-based number of the line, or {@link SyntaxException#UNKNOWN_LINE} if it is not known.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
 }
@@ -0,0 +1,226 @@
+package ex5.main.file_manager.functions;
+
+import ex5.main.file_manager.LineKind;
+import ex5.main.file_manager.LineRecord;
+import ex5.main.file_manager.SymbolInterner;
+import ex5.main.file_manager.SymbolTable;
+import ex5.main.file_manager.SyntaxException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A memo of method validations, shared by the files of a batch, so a method found in several files is
+ * validated once.
+ * The outcome of a method depends on nothing but its lines, the global variables it refers to and the
+ * signatures of the methods it calls, so a method is keyed by its lines, trimmed of their leading and
+ * trailing whitespace, along with the type, final flag and initialization of every name it refers to in
+ * the global variables, and the signature of every method it names. The outcome is either valid or the
+ * error of the method, kept with the position of its line within the method, so a memoized error is
+ * reported at the line of the file it is replayed in.
+ * The memo holds a bounded number of methods, and evicts the least recently used one when it is full.
+ * It may be shared by any number of threads.
+ */
+public class MethodMemo {
+    /**
+     * The number of methods a memo holds by default.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    private static final char LINE_SEPARATOR = '\n';
+    private static final char ENVIRONMENT_SEPARATOR = '\0';
+    private static final char FIELD_SEPARATOR = ',';
+    private static final char VALUE_SEPARATOR = '=';
+    private static final String MISSING = "-";
+    private static final int NO_OFFSET = -1;
+    private static final double PERCENT = 100.0;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final String COUNTERS_FORMAT =
+            "method memo: %d hits, %d misses, %d evicted, %.1f%% hit rate, %d lines skipped%n";
+    private static final String ERROR_MAX_ENTRIES = "The memo must hold at least one method: ";
+
+    private final Map<String, Outcome> outcomes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong skippedLines = new AtomicLong();
+
+    /**
+     * Constructs a memo.
+     *
+     * @param maxEntries The number of methods the memo holds at most.
+     */
+    public MethodMemo(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException(ERROR_MAX_ENTRIES + maxEntries);
+        }
+        this.outcomes = new LinkedHashMap<>(maxEntries, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Outcome> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the number of methods whose outcome was found in the memo.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Retrieves the number of methods whose outcome was not found in the memo, and which were validated.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Retrieves the number of methods the memo removed to stay within its bound.
+     *
+     * @return The number of evicted methods.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Formats the counters of the memo as a single line.
+     *
+     * @return The hits, the misses, the evicted methods, the hit rate and the lines that were not validated.
+     */
+    public String formatCounters() {
+        long lookups = hits.get() + misses.get();
+        return String.format(COUNTERS_FORMAT, hits.get(), misses.get(), evictions.get(),
+                lookups == 0 ? 0 : PERCENT * hits.get() / lookups, skippedLines.get());
+    }
+
+    // validates the method with the given validation, unless the outcome of the same method is memoized,
+    // in which case its error, if any, is thrown again at the line of this method
+    void validate(List<LineRecord> lines, int methodStart, int methodEnd, SymbolTable globalSymbols,
+                  MethodTable methods, Runnable validation) throws FunctionSyntaxException {
+        String key = keyOf(lines, methodStart, methodEnd, globalSymbols, methods);
+        Outcome outcome;
+        synchronized (outcomes) {
+            outcome = outcomes.get(key);
+        }
+        if (outcome != null) {
+            hits.incrementAndGet();
+            skippedLines.addAndGet(methodEnd - methodStart + 1);
+            outcome.replay(lines, methodStart);
+            return;
+        }
+        misses.incrementAndGet();
+        try {
+            validation.run();
+        } catch (FunctionSyntaxException e) {
+            int offset = offsetOf(lines, methodStart, methodEnd, e.getLineNumber());
+            if (offset != NO_OFFSET) {
+                remember(key, new Outcome(e.getMessage(), offset));
+            }
+            throw e;
+        }
+        remember(key, Outcome.VALID);
+    }
+
+    private void remember(String key, Outcome outcome) {
+        synchronized (outcomes) {
+            outcomes.put(key, outcome);
+        }
+    }
+
+    // the position of the line holding the error within the method, or NO_OFFSET if it is not known
+    private static int offsetOf(List<LineRecord> lines, int methodStart, int methodEnd, int lineNumber) {
+        if (lineNumber == SyntaxException.UNKNOWN_LINE) {
+            return NO_OFFSET;
+        }
+        for (int index = methodStart; index <= methodEnd; index++) {
+            if (lines.get(index).getLineNumber() == lineNumber) {
+                return index - methodStart;
+            }
+        }
+        return NO_OFFSET;
+    }
+
+    // the trimmed lines of the method, followed by the state of every name they refer to
+    private static String keyOf(List<LineRecord> lines, int methodStart, int methodEnd,
+                                SymbolTable globalSymbols, MethodTable methods) {
+        StringBuilder key = new StringBuilder();
+        Map<String, Integer> variables = new LinkedHashMap<>();
+        Map<String, Integer> methodSymbols = new LinkedHashMap<>();
+        for (int index = methodStart; index <= methodEnd; index++) {
+            LineRecord record = lines.get(index);
+            key.append(record.getText().trim()).append(LINE_SEPARATOR);
+            for (int name = 0; name < record.getNamesCount(); name++) {
+                if (record.getNameSymbol(name) != SymbolInterner.NO_SYMBOL) {
+                    variables.putIfAbsent(record.getName(name), record.getNameSymbol(name));
+                }
+            }
+            for (int value = 0; value < record.getOperandsCount(); value++) {
+                if (record.getValueSymbol(value) != SymbolInterner.NO_SYMBOL) {
+                    variables.putIfAbsent(record.getValue(value), record.getValueSymbol(value));
+                }
+            }
+            if (record.getKind() == LineKind.METHOD_DECLARATION || record.getKind() == LineKind.METHOD_CALL) {
+                methodSymbols.putIfAbsent(record.getMethodName(), record.getMethodSymbol());
+            }
+        }
+        key.append(ENVIRONMENT_SEPARATOR);
+        for (Map.Entry<String, Integer> variable : variables.entrySet()) {
+            key.append(variable.getKey()).append(VALUE_SEPARATOR);
+            int slot = globalSymbols.find(variable.getValue());
+            if (slot == SymbolTable.NO_SLOT) {
+                key.append(MISSING);
+            } else {
+                key.append(globalSymbols.getType(slot)).append(FIELD_SEPARATOR)
+                        .append(globalSymbols.isFinal(slot)).append(FIELD_SEPARATOR)
+                        .append(globalSymbols.isInitialized(slot));
+            }
+            key.append(LINE_SEPARATOR);
+        }
+        key.append(ENVIRONMENT_SEPARATOR);
+        for (Map.Entry<String, Integer> method : methodSymbols.entrySet()) {
+            key.append(method.getKey()).append(VALUE_SEPARATOR);
+            int slot = methods.find(method.getValue());
+            if (slot == MethodTable.NO_METHOD) {
+                key.append(MISSING);
+            } else {
+                for (int parameter = 0; parameter < methods.getArity(slot); parameter++) {
+                    key.append(methods.getParameterType(slot, parameter)).append(FIELD_SEPARATOR)
+                            .append(methods.isParameterFinal(slot, parameter)).append(FIELD_SEPARATOR);
+                }
+            }
+            key.append(LINE_SEPARATOR);
+        }
+        return key.toString();
+    }
+
+    // the outcome of a method: valid, or the message of its error and the position of its line
+    private static final class Outcome {
+        private static final Outcome VALID = new Outcome(null, NO_OFFSET);
+        private final String message;
+        private final int offset;
+
+        private Outcome(String message, int offset) {
+            this.message = message;
+            this.offset = offset;
+        }
+
+        private void replay(List<LineRecord> lines, int methodStart) throws FunctionSyntaxException {
+            if (this != VALID) {
+                int lineNumber = lines.get(methodStart + offset).getLineNumber();
+                throw new FunctionSyntaxException(message).atLine(lineNumber);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ex5.main.file_manager.functions;
+
+import ex5.main.file_manager.LineRecord;
+import ex5.main.file_manager.SymbolIndex;
+import ex5.main.file_manager.SymbolInterner;
+import ex5.main.file_manager.VariableType;
+
+import java.util.Arrays;
+
+/**
+ * The signatures of the methods of a file, keyed by the interned ids of their names
+ * (see {@link SymbolInterner}).
+ * Every declared method takes the next method index, and the parameters of all the methods are packed
+ * one after the other into a single array of type codes and a single array of final flags, so a
+ * method's parameters are the range between its start and the start of the next method.
+ * A call is checked by comparing the type codes of its arguments with that range, without any
+ * object per method or per parameter.
+ */
+public class MethodTable {
+    /**
+     * The index of a name that is not a declared method.
+     */
+    public static final int NO_METHOD = SymbolIndex.NO_SLOT;
+    private static final int INITIAL_METHODS = 8;
+    private static final int INITIAL_PARAMETERS = 16;
+    private static final int GROWTH_FACTOR = 2;
+
+    private final SymbolIndex index;
+    // parameterStarts[method] is the first parameter of the method, and parameterStarts[size] is the end
+    private int[] parameterStarts;
+    private byte[] parameterTypes;
+    private boolean[] parameterFinals;
+    private int size = 0;
+
+    /**
+     * Constructs an empty method table.
+     */
+    public MethodTable() {
+        index = new SymbolIndex();
+        parameterStarts = new int[INITIAL_METHODS + 1];
+        parameterTypes = new byte[INITIAL_PARAMETERS];
+        parameterFinals = new boolean[INITIAL_PARAMETERS];
+    }
+
+    private MethodTable(MethodTable other) {
+        index = other.index.snapshot();
+        parameterStarts = other.parameterStarts.clone();
+        parameterTypes = other.parameterTypes.clone();
+        parameterFinals = other.parameterFinals.clone();
+        size = other.size;
+    }
+
+    /**
+     * Declares a method.
+     *
+     * @param declaration The parsed record of the method declaration.
+     * @return The index of the method.
+     */
+    public int declare(LineRecord declaration) {
+        if (size + 1 == parameterStarts.length) {
+            parameterStarts = Arrays.copyOf(parameterStarts, GROWTH_FACTOR * parameterStarts.length);
+        }
+        int start = parameterStarts[size];
+        int end = start + declaration.getNamesCount();
+        if (end > parameterTypes.length) {
+            int capacity = Math.max(end, GROWTH_FACTOR * parameterTypes.length);
+            parameterTypes = Arrays.copyOf(parameterTypes, capacity);
+            parameterFinals = Arrays.copyOf(parameterFinals, capacity);
+        }
+        for (int parameter = 0; parameter < declaration.getNamesCount(); parameter++) {
+            parameterTypes[start + parameter] = declaration.getParameterType(parameter).getCode();
+            parameterFinals[start + parameter] = declaration.isParameterFinal(parameter);
+        }
+        int method = size++;
+        parameterStarts[size] = end;
+        index.put(declaration.getMethodSymbol(), method);
+        return method;
+    }
+
+    /**
+     * Finds a declared method.
+     *
+     * @param symbol The id of the name of the method.
+     * @return The index of the method, or {@link #NO_METHOD} if no method of that name is declared.
+     */
+    public int find(int symbol) {
+        return index.get(symbol);
+    }
+
+    /**
+     * Retrieves the number of parameters of a method.
+     *
+     * @param method The index of the method.
+     * @return The number of parameters.
+     */
+    public int getArity(int method) {
+        return parameterStarts[method + 1] - parameterStarts[method];
+    }
+
+    /**
+     * Retrieves the type of a parameter of a method.
+     *
+     * @param method    The index of the method.
+     * @param parameter The index of the parameter.
+     * @return The type of the parameter.
+     */
+    public VariableType getParameterType(int method, int parameter) {
+        return VariableType.fromCode(parameterTypes[parameterStarts[method] + parameter]);
+    }
+
+    /**
+     * Checks whether a parameter of a method is final.
+     *
+     * @param method    The index of the method.
+     * @param parameter The index of the parameter.
+     * @return true if the parameter is final, false otherwise.
+     */
+    public boolean isParameterFinal(int method, int parameter) {
+        return parameterFinals[parameterStarts[method] + parameter];
+    }
+
+    /**
+     * Copies the table, so that the copy may be read by other threads while this table changes.
+     *
+     * @return An independent copy of the table.
+     */
+    public MethodTable snapshot() {
+        return new MethodTable(this);
+    }
+}
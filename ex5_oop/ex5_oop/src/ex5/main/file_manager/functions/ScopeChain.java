@@ -0,0 +1,131 @@
+package ex5.main.file_manager.functions;
+
+import ex5.main.file_manager.SymbolTable;
+import ex5.main.file_manager.VariableType;
+
+import java.util.Arrays;
+
+/**
+ * The symbol table of a method body: the chain of nested scopes, from the innermost block out to the
+ * method scope, followed by the global variables.
+ * All the scopes of the method share a single {@link SymbolTable}: entering a block only marks where
+ * its declarations start, and leaving it drops the declarations made since the mark, so nested blocks
+ * never copy the variables of their enclosing blocks.
+ * A name is resolved to its latest visible declaration, so an inner declaration shadows the outer ones.
+ * A resolved variable is identified by a handle: the handles below the number of global variables are
+ * the slots of global variables, and the others are the slots of local variables after them.
+ */
+public class ScopeChain {
+    /**
+     * The handle of a name that is not a visible variable.
+     */
+    public static final int NOT_FOUND = SymbolTable.NO_SLOT;
+    private static final int INITIAL_DEPTH = 8;
+    private static final int GROWTH_FACTOR = 2;
+
+    private final SymbolTable globalSymbols;
+    private final int globalsCount;
+    private final SymbolTable localSymbols = new SymbolTable();
+    private int[] enclosingScopeStarts = new int[INITIAL_DEPTH];
+    private int depth = 0;
+    private int currentScopeStart = 0;
+
+    /**
+     * Constructs a scope chain holding only the method scope.
+     *
+     * @param globalSymbols The global variables, visible from every scope. They are only read.
+     */
+    public ScopeChain(SymbolTable globalSymbols) {
+        this.globalSymbols = globalSymbols;
+        this.globalsCount = globalSymbols.size();
+    }
+
+    /**
+     * Opens the scope of a new inner block.
+     */
+    public void enterScope() {
+        if (depth == enclosingScopeStarts.length) {
+            enclosingScopeStarts = Arrays.copyOf(enclosingScopeStarts, GROWTH_FACTOR * depth);
+        }
+        enclosingScopeStarts[depth++] = currentScopeStart;
+        currentScopeStart = localSymbols.size();
+    }
+
+    /**
+     * Closes the scope of the innermost block, dropping the variables declared in it.
+     */
+    public void exitScope() {
+        localSymbols.truncate(currentScopeStart);
+        currentScopeStart = enclosingScopeStarts[--depth];
+    }
+
+    /**
+     * Declares a variable in the innermost scope.
+     *
+     * @param symbol        The interned id of the name of the variable.
+     * @param type          The type of the variable.
+     * @param isFinal       Whether the variable is final.
+     * @param isInitialized Whether the variable is given a value by its declaration.
+     */
+    public void declare(int symbol, VariableType type, boolean isFinal, boolean isInitialized) {
+        localSymbols.declare(symbol, type, isFinal, isInitialized);
+    }
+
+    /**
+     * Checks whether a variable of the given name was declared in the innermost scope itself.
+     *
+     * @param symbol The interned id of the name.
+     * @return true if the innermost scope declares the name, false otherwise.
+     */
+    public boolean isDeclaredInCurrentScope(int symbol) {
+        return localSymbols.find(symbol) >= currentScopeStart;
+    }
+
+    /**
+     * Resolves a name to the variable it refers to in the innermost scope.
+     *
+     * @param symbol The interned id of the name, or {@link ex5.main.file_manager.SymbolInterner#NO_SYMBOL}.
+     * @return The handle of the innermost visible variable of that name, of a global variable if no scope
+     * declares it, or {@link #NOT_FOUND} if the name is not a visible variable.
+     */
+    public int lookup(int symbol) {
+        int slot = localSymbols.find(symbol);
+        if (slot != SymbolTable.NO_SLOT) {
+            return globalsCount + slot;
+        }
+        return globalSymbols.find(symbol);
+    }
+
+    /**
+     * Retrieves the type of a resolved variable.
+     *
+     * @param handle A handle returned by {@link #lookup}.
+     * @return The type of the variable.
+     */
+    public VariableType getType(int handle) {
+        return handle < globalsCount ? globalSymbols.getType(handle) :
+                localSymbols.getType(handle - globalsCount);
+    }
+
+    /**
+     * Checks whether a resolved variable is final.
+     *
+     * @param handle A handle returned by {@link #lookup}.
+     * @return true if the variable is final, false otherwise.
+     */
+    public boolean isFinal(int handle) {
+        return handle < globalsCount ? globalSymbols.isFinal(handle) :
+                localSymbols.isFinal(handle - globalsCount);
+    }
+
+    /**
+     * Checks whether a resolved variable was given a value by its declaration.
+     *
+     * @param handle A handle returned by {@link #lookup}.
+     * @return true if the variable is initialized, false otherwise.
+     */
+    public boolean isInitialized(int handle) {
+        return handle < globalsCount ? globalSymbols.isInitialized(handle) :
+                localSymbols.isInitialized(handle - globalsCount);
+    }
+}
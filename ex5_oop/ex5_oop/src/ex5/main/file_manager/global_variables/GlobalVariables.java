@@ -1,12 +1,13 @@
 package ex5.main.file_manager.global_variables;
 
-import ex5.main.Variable;
+import ex5.main.file_manager.LineKind;
+import ex5.main.file_manager.LineRecord;
+import ex5.main.file_manager.SJavaValidator;
+import ex5.main.file_manager.SymbolTable;
 import ex5.main.file_manager.SyntaxException;
+import ex5.main.file_manager.VariableType;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * The GlobalVariables class processes and validates global variable declarations in s-Java code.
@@ -19,56 +20,41 @@ public class GlobalVariables {
     private static final String ERROR_DUPLICATE_VARIABLE = "Duplicate global variable name: ";
     private static final String ERROR_TYPE_MISMATCH = "Type mismatch: Cannot assign ";
     private static final String ERROR_UNKNOWN_TYPE = "Unknown type: ";
-    private static final String ERROR_INVALID_INT = "Invalid value for type int: ";
-    private static final String ERROR_INVALID_DOUBLE = "Invalid value for type double: ";
-    private static final String ERROR_INVALID_BOOLEAN = "Invalid value for type boolean: ";
-    private static final String ERROR_INVALID_CHAR = "Invalid value for type char: ";
-    private static final String ERROR_INVALID_STRING = "Invalid value for type String: ";
-
-    private static final String VALID_TYPES = "int|double|boolean|char|String";
-    private static final String VARIABLE_NAME_PATTERN = "_[a-zA-Z0-9_]+|[a-zA-Z][a-zA-Z0-9_]*";
-    private static final String VALUE_PATTERN = ".*";
-    private static final String INT_PATTERN = "-?\\d+";
-    private static final String DOUBLE_PATTERN = "-?\\d*\\.\\d+|-?\\d+\\.\\d*|-?\\d+";
-    private static final String BOOLEAN_PATTERN = "true|false";
-    private static final String CHAR_PATTERN = "'.'";
-    private static final String STRING_PATTERN = "\"[^\"]*\"";
-
-    private static final String DECLARATION_PATTERN = String.format(
-            "^(final\\s+)?(%s)\\s+(%s(\\s*=\\s*%s)?(\\s*,\\s*%s(\\s*=\\s*%s)?)*)\\s*;$",
-            VALID_TYPES, VARIABLE_NAME_PATTERN, VALUE_PATTERN, VARIABLE_NAME_PATTERN, VALUE_PATTERN
-    );
-    private static final String INT = "int";
-    private static final String DOUBLE = "double";
-    private static final String BOOLEAN = "boolean";
-    private static final String CHAR = "char";
-    private static final String STRING = "String";
-    private static final int INT1 = 1;
+    private static final String ERROR_INVALID_VALUE = "Invalid value for type ";
+    private static final String SEPARATOR = ": ";
+
     private static final String TO = " to ";
     private static final String ASSIGNING_TO_VALUE_NULL = "assigning to value 'null'";
-    private static final String S_S = "\\s*,\\s*";
-    private static final String S_S1 = "\\s*=\\s*";
     private static final String FINAL_WITHOUT_INITIALIZATION = "final without initialization";
 
-    private final List<String> linesArray;
-    private final HashMap<String, Variable<?>> globalMap = new HashMap<>();
+    private final List<LineRecord> records;
+    private final SymbolTable globalSymbols = new SymbolTable();
+    private int scopeLevel = 0;
 
     /**
      * Constructor for GlobalVariables.
      *
-     * @param linesArray List of code lines.
+     * @param records The parsed records of the code lines.
+     */
+    public GlobalVariables(List<LineRecord> records) {
+        this.records = records;
+    }
+
+    /**
+     * Constructor for GlobalVariables that are fed one line at a time through {@link #addRecord},
+     * without holding the lines of the file.
      */
-    public GlobalVariables(List<String> linesArray) {
-        this.linesArray = linesArray;
+    public GlobalVariables() {
+        this(List.of());
     }
 
     /**
-     * Retrieves the global variable map.
+     * Retrieves the global variables.
      *
-     * @return HashMap containing global variable names and values.
+     * @return The symbol table of the global variables, keyed by the interned ids of their names.
      */
-    public HashMap<String, Variable<?>> getGlobalMap() {
-        return globalMap;
+    public SymbolTable getGlobalSymbols() {
+        return globalSymbols;
     }
 
     /**
@@ -77,114 +63,105 @@ public class GlobalVariables {
      * @throws SyntaxException if there are unmatched braces or invalid declarations.
      */
     public void validAndCreateGlobalMap() throws SyntaxException {
-        int scopeLevel = 0;
-        for (String line : linesArray) {
-            line = line.trim();
-            if (line.endsWith("{")) {
-                scopeLevel++;
-                continue;
-            }
-            if (line.endsWith("}")) {
-                if (scopeLevel > 0) {
-                    scopeLevel--;
-                } else {
-                    throw new SyntaxException(ERROR_UNMATCHED_CLOSING_BRACE);
-                }
-                continue;
+        for (LineRecord record : records) {
+            addRecord(record);
+        }
+        checkAllScopesClosed();
+    }
+
+    /**
+     * Processes the next line of code: tracks the scopes it opens or closes, and validates and adds
+     * its variables to the global variable map if it is in the global scope.
+     *
+     * @param record The parsed record of the next code line.
+     * @throws SyntaxException if the line closes an unopened scope or is an invalid global declaration.
+     */
+    public void addRecord(LineRecord record) throws SyntaxException {
+        LineKind kind = record.getKind();
+        if (kind == LineKind.CONDITION || kind == LineKind.METHOD_DECLARATION) {
+            scopeLevel++;
+            return;
+        }
+        if (kind == LineKind.END_OF_SCOPE) {
+            if (scopeLevel > 0) {
+                scopeLevel--;
+            } else {
+                throw new SyntaxException(ERROR_UNMATCHED_CLOSING_BRACE).atLine(record.getLineNumber());
             }
-            if (scopeLevel == 0) {
-                validateAndAddGlobalVariable(line);
+            return;
+        }
+        if (scopeLevel == 0) {
+            try {
+                validateAndAddGlobalVariable(record);
+            } catch (SyntaxException e) {
+                throw e.atLine(record.getLineNumber());
             }
         }
+    }
+
+    /**
+     * Checks that every scope opened by the processed lines was closed.
+     *
+     * @throws SyntaxException if a scope is left open.
+     */
+    public void checkAllScopesClosed() throws SyntaxException {
         if (scopeLevel != 0) {
             throw new SyntaxException(ERROR_UNMATCHED_OPENING_BRACE);
         }
     }
 
-    private void validateAndAddGlobalVariable(String line) throws SyntaxException {
-        line = line.trim();
-        Pattern pattern = Pattern.compile(DECLARATION_PATTERN);
-        Matcher matcher = pattern.matcher(line);
-
-        if (!matcher.matches()) {
-            throw new SyntaxException(ERROR_INVALID_DECLARATION + line);
+    private void validateAndAddGlobalVariable(LineRecord record) throws SyntaxException {
+        if (record.getKind() != LineKind.DECLARATION) {
+            throw new SyntaxException(ERROR_INVALID_DECLARATION + record.getText().trim());
         }
 
-        boolean isFinal = matcher.group(INT1) != null;
-        String type = matcher.group(2);
-        String variables = matcher.group(3).trim();
+        boolean isFinal = record.isFinal();
+        VariableType type = record.getType();
 
-        String[] variableParts = variables.split(S_S);
-        for (String varPart : variableParts) {
-            String[] nameValue = varPart.split(S_S1);
-            String name = nameValue[0];
-            String value = nameValue.length > INT1 ? nameValue[INT1] : null;
+        for (int index = 0; index < record.getNamesCount(); index++) {
+            String name = record.getName(index);
+            int symbol = record.getNameSymbol(index);
 
-            if (globalMap.containsKey(name)) {
+            if (!SJavaValidator.isVariableName(name)) {
+                throw new SyntaxException(ERROR_INVALID_DECLARATION + record.getText().trim());
+            }
+            if (globalSymbols.find(symbol) != SymbolTable.NO_SLOT) {
                 throw new SyntaxException(ERROR_DUPLICATE_VARIABLE + name);
             }
 
-            Object resolvedValue = null;
-            if (value != null) {
-                resolvedValue = validateValue(type, value);
+            boolean isInitialized = record.hasValue(index);
+            if (isInitialized) {
+                validateValue(type, record, index);
             }
 
-            Variable<Object> variable = new Variable<>(resolvedValue, type, isFinal);
-            if (isFinal && variable.getValue() == null) {
+            if (isFinal && !isInitialized) {
                 throw new SyntaxException(FINAL_WITHOUT_INITIALIZATION);
             }
-            globalMap.put(name, variable);
+            globalSymbols.declare(symbol, type, isFinal, isInitialized);
         }
     }
 
-    private Object validateValue(String type, String value) throws SyntaxException {
-        if (globalMap.containsKey(value)) {
-            Variable<?> sourceVar = globalMap.get(value);
-            if (sourceVar.getValue() == null) {
+    // checks only the type of the value: a literal is classified in a single scan of its characters and
+    // never parsed, so its value is not built, and a variable keeps nothing but its type and state bits
+    private void validateValue(VariableType type, LineRecord record, int index) throws SyntaxException {
+        int sourceSlot = globalSymbols.find(record.getValueSymbol(index));
+        if (sourceSlot != SymbolTable.NO_SLOT) {
+            if (!globalSymbols.isInitialized(sourceSlot)) {
                 throw new SyntaxException(ASSIGNING_TO_VALUE_NULL);
             }
-            if (!type.equals(sourceVar.getType())) {
-                throw new SyntaxException(ERROR_TYPE_MISMATCH + sourceVar.getType() + TO + type);
+            VariableType sourceType = globalSymbols.getType(sourceSlot);
+            if (type != sourceType) {
+                throw new SyntaxException(ERROR_TYPE_MISMATCH + sourceType.getName() + TO + type.getName());
             }
-            return sourceVar.getValue();
+            return;
         }
 
-        switch (type) {
-            case INT:
-                if (value.matches(INT_PATTERN)) {
-                    return Integer.parseInt(value);
-                }
-                throw new SyntaxException(ERROR_INVALID_INT + value);
-
-            case DOUBLE:
-                if (value.matches(DOUBLE_PATTERN)) {
-                    return Double.parseDouble(value);
-                }
-                throw new SyntaxException(ERROR_INVALID_DOUBLE + value);
-
-            case BOOLEAN:
-                if (value.matches(BOOLEAN_PATTERN)) {
-                    return Boolean.parseBoolean(value);
-                }
-                if (value.matches(DOUBLE_PATTERN)) {
-                    return Double.parseDouble(value) != 0;
-                }
-                throw new SyntaxException(ERROR_INVALID_BOOLEAN + value);
-
-            case CHAR:
-                if (value.matches(CHAR_PATTERN)) {
-                    return value.charAt(INT1);
-                }
-                throw new SyntaxException(ERROR_INVALID_CHAR + value);
-
-            case STRING:
-                if (value.matches(STRING_PATTERN)) {
-                    return value.substring(INT1, value.length() - INT1);
-                }
-                throw new SyntaxException(ERROR_INVALID_STRING + value);
-
-            default:
-                throw new SyntaxException(ERROR_UNKNOWN_TYPE + type);
+        if (type == null) {
+            throw new SyntaxException(ERROR_UNKNOWN_TYPE + type);
+        }
+        if (!type.accepts(record.getValueLiteralType(index))) {
+            throw new SyntaxException(ERROR_INVALID_VALUE + type.getName() + SEPARATOR +
+                    record.getValue(index));
         }
     }
 }
@@ -0,0 +1,278 @@
+package ex5.main.watch;
+
+import ex5.main.SjavaValidator;
+import ex5.main.ValidationResult;
+import ex5.main.file_manager.LineKind;
+import ex5.main.file_manager.LineParser;
+import ex5.main.file_manager.LineRecord;
+import ex5.main.file_manager.RowValidnessClass;
+import ex5.main.file_manager.SourceFile;
+import ex5.main.file_manager.SymbolInterner;
+import ex5.main.file_manager.SymbolTable;
+import ex5.main.file_manager.functions.FunctionBodyValidator;
+import ex5.main.file_manager.functions.FunctionNames;
+import ex5.main.file_manager.functions.MethodTable;
+import ex5.main.file_manager.global_variables.GlobalVariables;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates the successive versions of a single s-Java file, re-validating only what changed since the
+ * previous version:
+ * - A line is checked only if no previous version held the same text.
+ * - The global variables are validated only if the lines outside the methods changed, and the method
+ *   signatures only if one of the method declarations changed.
+ * - A method body is validated only if its text changed, if one of the methods it calls changed its
+ *   signature, or if the global variables changed, since any of them may be referenced by the body.
+ * The state kept between the versions holds nothing but what was found valid, so a version holding an
+ * error, or a structure the shortcut does not cover (a block outside of any method), is validated as a
+ * whole by {@link SjavaValidator}, and its error is reported exactly as {@link ex5.main.Sjavac} reports it.
+ * A validator keeps the state of a single file, and is not thread-safe.
+ */
+public class IncrementalValidator {
+    private static final int NO_METHOD = -1;
+
+    private final SjavaValidator validator = new SjavaValidator();
+    // the format of every line of the previous version that passed the line checks, by its text
+    private Map<String, LineKind> lineKinds = new HashMap<>();
+    // the methods of the previous version that were found valid, by their lines, whose hashes the line
+    // checks already computed
+    private Map<List<String>, MethodEntry> validMethods = new HashMap<>();
+    // the lines outside the methods and the method declarations the global symbols and the methods index
+    private List<String> topLevelLines;
+    private List<String> declarationLines;
+    private int globalsVersion = 0;
+    private SymbolInterner symbols;
+    private SymbolTable globalSymbols;
+    private MethodTable methods;
+    private final Map<String, String> signatures = new HashMap<>();
+    private int methodsCount;
+    private int revalidatedMethods;
+    private boolean isIncremental;
+
+    /**
+     * Validates the current version of the file.
+     *
+     * @param sourceFile The current version of the file.
+     * @return The result of the validation, the same as {@link SjavaValidator#validate(SourceFile)}.
+     */
+    public ValidationResult validate(SourceFile sourceFile) {
+        methodsCount = 0;
+        revalidatedMethods = 0;
+        isIncremental = isValidIncrementally(sourceFile.getLines());
+        if (isIncremental) {
+            return ValidationResult.success();
+        }
+        methodsCount = 0;
+        revalidatedMethods = 0;
+        return validator.validate(sourceFile);
+    }
+
+    /**
+     * Retrieves the number of methods of the last validated version.
+     *
+     * @return The number of methods, or 0 if the version was validated as a whole.
+     */
+    public int getMethodsCount() {
+        return methodsCount;
+    }
+
+    /**
+     * Retrieves the number of method bodies the last validation re-validated.
+     *
+     * @return The number of re-validated methods, or 0 if the version was validated as a whole.
+     */
+    public int getRevalidatedMethods() {
+        return revalidatedMethods;
+    }
+
+    /**
+     * Checks whether the last validation was incremental.
+     *
+     * @return true if the last version was found valid by re-validating its changes only, false if it was
+     *         validated as a whole.
+     */
+    public boolean isIncremental() {
+        return isIncremental;
+    }
+
+    // true if the file is valid; false if it holds an error, or a structure that is not covered, and
+    // must be validated as a whole
+    private boolean isValidIncrementally(List<CharSequence> lines) {
+        List<String> codeLines = new ArrayList<>();
+        List<LineKind> kinds = new ArrayList<>();
+        List<Integer> lineNumbers = new ArrayList<>();
+        Map<String, LineKind> currentLineKinds = new HashMap<>();
+        int lineNumber = 0;
+        try {
+            for (CharSequence line : lines) {
+                lineNumber++;
+                if (RowValidnessClass.isEmptyOrComment(line)) {
+                    continue;
+                }
+                String text = line.toString();
+                LineKind kind = lineKinds.get(text);
+                if (kind == null) {
+                    kind = RowValidnessClass.checkLine(text, codeLines.size(), lineNumber);
+                }
+                currentLineKinds.put(text, kind);
+                codeLines.add(text);
+                kinds.add(kind);
+                lineNumbers.add(lineNumber);
+            }
+        } catch (RuntimeException e) {
+            // the lines that passed are kept along with those of the previous version
+            lineKinds.putAll(currentLineKinds);
+            return false;
+        }
+        lineKinds = currentLineKinds;
+
+        // split the file into the lines outside the methods and the ranges of the methods
+        List<Integer> topLevel = new ArrayList<>();
+        List<Integer> declarations = new ArrayList<>();
+        List<int[]> methodRanges = new ArrayList<>();
+        int depth = 0;
+        int methodStart = NO_METHOD;
+        for (int index = 0; index < codeLines.size(); index++) {
+            LineKind kind = kinds.get(index);
+            if (kind == LineKind.METHOD_DECLARATION) {
+                declarations.add(index);
+                if (depth == 0) {
+                    methodStart = index;
+                }
+                depth++;
+            } else if (kind == LineKind.CONDITION) {
+                if (depth == 0) {
+                    return false;
+                }
+                depth++;
+            } else if (kind == LineKind.END_OF_SCOPE) {
+                if (depth == 0) {
+                    return false;
+                }
+                depth--;
+                if (depth == 0) {
+                    methodRanges.add(new int[]{methodStart, index});
+                }
+            } else if (depth == 0) {
+                topLevel.add(index);
+            }
+        }
+        if (depth != 0) {
+            return false;
+        }
+
+        try {
+            List<String> currentTopLevel = textsOf(codeLines, topLevel);
+            List<String> currentDeclarations = textsOf(codeLines, declarations);
+            boolean areGlobalsChanged = !currentTopLevel.equals(topLevelLines);
+            if (areGlobalsChanged || !currentDeclarations.equals(declarationLines)) {
+                // a failure leaves no index, so the next version indexes the declarations again
+                topLevelLines = null;
+                declarationLines = null;
+                indexDeclarations(codeLines, kinds, lineNumbers, topLevel, declarations);
+                if (areGlobalsChanged) {
+                    globalsVersion++;
+                }
+                topLevelLines = currentTopLevel;
+                declarationLines = currentDeclarations;
+            }
+            validateMethods(codeLines, kinds, lineNumbers, methodRanges);
+        } catch (RuntimeException e) {
+            return false;
+        }
+        return true;
+    }
+
+    // validates the global variables and the method declarations, with a new interner
+    private void indexDeclarations(List<String> codeLines, List<LineKind> kinds, List<Integer> lineNumbers,
+                                   List<Integer> topLevel, List<Integer> declarations) {
+        symbols = new SymbolInterner();
+        GlobalVariables globalVariables = new GlobalVariables(
+                parse(codeLines, kinds, lineNumbers, topLevel));
+        globalVariables.validAndCreateGlobalMap();
+        List<LineRecord> declarationRecords = parse(codeLines, kinds, lineNumbers, declarations);
+        FunctionNames functionNames = new FunctionNames(declarationRecords);
+        functionNames.getAllFunctionsNames();
+        globalSymbols = globalVariables.getGlobalSymbols();
+        methods = functionNames.getMethods();
+        signatures.clear();
+        for (LineRecord declaration : declarationRecords) {
+            signatures.put(declaration.getMethodName(), declaration.getText().toString());
+        }
+    }
+
+    private void validateMethods(List<String> codeLines, List<LineKind> kinds, List<Integer> lineNumbers,
+                                 List<int[]> methodRanges) {
+        FunctionBodyValidator functionBodyValidator = new FunctionBodyValidator(List.of(), globalSymbols,
+                                                                                methods);
+        Map<List<String>, MethodEntry> currentValidMethods = new HashMap<>();
+        methodsCount = methodRanges.size();
+        for (int[] range : methodRanges) {
+            List<String> text = List.copyOf(codeLines.subList(range[0], range[1] + 1));
+            MethodEntry entry = validMethods.get(text);
+            if (entry == null || !entry.isStillValid()) {
+                List<Integer> methodLines = new ArrayList<>();
+                for (int index = range[0]; index <= range[1]; index++) {
+                    methodLines.add(index);
+                }
+                List<LineRecord> records = parse(codeLines, kinds, lineNumbers, methodLines);
+                functionBodyValidator.validateMethod(records, records.get(0).getMethodName());
+                entry = new MethodEntry(records);
+                revalidatedMethods++;
+            }
+            currentValidMethods.put(text, entry);
+        }
+        validMethods = currentValidMethods;
+    }
+
+    private List<LineRecord> parse(List<String> codeLines, List<LineKind> kinds, List<Integer> lineNumbers,
+                                   List<Integer> indices) {
+        List<LineRecord> records = new ArrayList<>(indices.size());
+        for (int index : indices) {
+            records.add(LineParser.parse(codeLines.get(index), kinds.get(index), index, lineNumbers.get(index),
+                                         symbols));
+        }
+        return records;
+    }
+
+    private static List<String> textsOf(List<String> codeLines, List<Integer> indices) {
+        List<String> texts = new ArrayList<>(indices.size());
+        for (int index : indices) {
+            texts.add(codeLines.get(index));
+        }
+        return texts;
+    }
+
+    // a method found valid, along with what its validity depends on beyond its own text: the global
+    // variables and the signatures of the methods it calls
+    private final class MethodEntry {
+        private final int globalsVersion;
+        private final Map<String, String> calleeSignatures = new HashMap<>();
+
+        private MethodEntry(List<LineRecord> records) {
+            this.globalsVersion = IncrementalValidator.this.globalsVersion;
+            for (LineRecord record : records) {
+                if (record.getKind() == LineKind.METHOD_CALL) {
+                    String callee = record.getMethodName();
+                    calleeSignatures.put(callee, signatures.get(callee));
+                }
+            }
+        }
+
+        private boolean isStillValid() {
+            if (globalsVersion != IncrementalValidator.this.globalsVersion) {
+                return false;
+            }
+            for (Map.Entry<String, String> callee : calleeSignatures.entrySet()) {
+                if (!callee.getValue().equals(signatures.get(callee.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
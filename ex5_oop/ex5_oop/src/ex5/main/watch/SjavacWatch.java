@@ -0,0 +1,213 @@
+package ex5.main.watch;
+
+import ex5.main.InputChecker;
+import ex5.main.ValidationResult;
+import ex5.main.file_manager.SourceFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static ex5.main.Sjavac.IO_ERROR_EXIT_CODE;
+
+/**
+ * Class: SjavacWatch
+ * Validates s-Java files every time they change, keeping the state of every file between its versions so
+ * a change re-validates only the methods it may affect (see {@link IncrementalValidator}).
+ * The arguments are s-Java files, or directories whose s-Java files are all watched, files created later
+ * included. Every file is validated once at start-up, and then whenever it is saved; the events of a
+ * burst of saves are gathered for {@value #SETTLE_MILLIS} ms, so a file saved several times in a row is
+ * validated once. When the events overflow, every watched file is validated again.
+ * For every validation a single line is printed: the file, the exit code, the time the validation took,
+ * the methods that were re-validated out of the methods of the file ("full" if the file was validated as
+ * a whole, "-" if it could not be read) and, for an invalid file, the error message. A deleted file is
+ * reported with the IO error code.
+ * Runs until the JVM is stopped.
+ * Usage: SjavacWatch &lt;file or directory&gt;...
+ */
+public class SjavacWatch {
+    private static final String USAGE_ERROR = "Usage: SjavacWatch <file or directory>...";
+    private static final String ERROR_NOT_SJAVA = "Not an s-Java file or a directory: ";
+    private static final String ERROR_DELETED = "File deleted: ";
+    private static final String RESULT_FORMAT = "%s %d %.3f ms %s%s%n";
+    private static final String METHODS_FORMAT = "%d/%d methods";
+    private static final String FULL_VALIDATION = "full";
+    private static final String NOT_VALIDATED = "-";
+    private static final String MESSAGE_SEPARATOR = " ";
+    private static final String NO_MESSAGE = "";
+    private static final long SETTLE_MILLIS = 50;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final WatchService watchService;
+    // the watched directories, by their watch keys
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    // the directories given as arguments, whose s-Java files are all watched
+    private final Set<Path> wholeDirectories = new HashSet<>();
+    // the files given explicitly, which are watched through their directories
+    private final Set<Path> explicitFiles = new HashSet<>();
+    private final Map<Path, IncrementalValidator> validators = new TreeMap<>();
+
+    private SjavacWatch(WatchService watchService) {
+        this.watchService = watchService;
+    }
+
+    /**
+     * Validates the given files, and validates them again every time they change.
+     *
+     * @param args The s-Java files and directories to watch.
+     * @throws IOException If the directories cannot be watched.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            usage();
+        }
+        SjavacWatch watch = new SjavacWatch(FileSystems.getDefault().newWatchService());
+        try {
+            for (String argument : args) {
+                watch.add(Paths.get(argument).toAbsolutePath().normalize());
+            }
+        } catch (InvalidPathException e) {
+            usage();
+        }
+        // a file deleted meanwhile is dropped by its validation
+        for (Path file : new ArrayList<>(watch.validators.keySet())) {
+            watch.validate(file);
+        }
+        try {
+            watch.watch();
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the watch ends with the JVM
+        }
+    }
+
+    // registers a file, or a directory along with its s-Java files
+    private void add(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            register(path);
+            wholeDirectories.add(path);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(path)) {
+                for (Path file : files) {
+                    if (isWatched(file)) {
+                        validators.put(file, new IncrementalValidator());
+                    }
+                }
+            }
+        } else if (InputChecker.isSjavaFile(path.toString())) {
+            register(path.getParent());
+            explicitFiles.add(path);
+            validators.put(path, new IncrementalValidator());
+        } else {
+            System.out.println(ERROR_NOT_SJAVA + path);
+            System.exit(IO_ERROR_EXIT_CODE);
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        if (!directories.containsValue(directory)) {
+            WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            directories.put(key, directory);
+        }
+    }
+
+    // true if the file is one of the explicit files, or an s-Java file of a directory given as an argument
+    private boolean isWatched(Path file) {
+        return explicitFiles.contains(file) || InputChecker.isSjavaFile(file.toString())
+                && wholeDirectories.contains(file.getParent()) && !Files.isDirectory(file);
+    }
+
+    // waits for events, and validates the files they concern once their burst settles
+    private void watch() throws InterruptedException {
+        while (true) {
+            WatchKey key = watchService.take();
+            TimeUnit.MILLISECONDS.sleep(SETTLE_MILLIS);
+            Set<Path> changed = new LinkedHashSet<>();
+            boolean isOverflown = false;
+            while (key != null) {
+                isOverflown |= collect(key, changed);
+                key = watchService.poll();
+            }
+            if (isOverflown) {
+                changed.addAll(validators.keySet());
+            }
+            for (Path file : changed) {
+                validate(file);
+            }
+        }
+    }
+
+    // adds the files an event key reports to the changed files, and returns true if its events overflowed
+    private boolean collect(WatchKey key, Set<Path> changed) {
+        Path directory = directories.get(key);
+        boolean isOverflown = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                isOverflown = true;
+                continue;
+            }
+            Path file = directory.resolve((Path) event.context());
+            if (validators.containsKey(file) || isWatched(file)) {
+                changed.add(file);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+        return isOverflown;
+    }
+
+    // validates the current version of a file, and prints the result
+    private void validate(Path file) {
+        long start = System.nanoTime();
+        IncrementalValidator validator = validators.computeIfAbsent(file, added -> new IncrementalValidator());
+        ValidationResult result;
+        // the file is read rather than mapped, since an editor may truncate it while it is validated
+        try (InputStream input = Files.newInputStream(file)) {
+            result = validator.validate(SourceFile.read(input));
+        } catch (IOException e) {
+            if (Files.exists(file)) {
+                result = ValidationResult.ioError(e.getMessage());
+            } else {
+                // a deleted file starts over if it is created again
+                validators.remove(file);
+                result = ValidationResult.ioError(ERROR_DELETED + file);
+            }
+        } catch (RuntimeException | StackOverflowError e) {
+            result = ValidationResult.syntaxError(e.toString());
+        }
+        double time = (System.nanoTime() - start) / NANOS_PER_MILLI;
+        String methods;
+        if (result.getCode() == IO_ERROR_EXIT_CODE) {
+            methods = NOT_VALIDATED;
+        } else if (validator.isIncremental()) {
+            methods = String.format(METHODS_FORMAT, validator.getRevalidatedMethods(), validator.getMethodsCount());
+        } else {
+            methods = FULL_VALIDATION;
+        }
+        String message = result.isSuccess() ? NO_MESSAGE : MESSAGE_SEPARATOR + result.getMessage();
+        System.out.printf(RESULT_FORMAT, file, result.getCode(), time, methods, message);
+    }
+
+    private static void usage() {
+        System.out.println(USAGE_ERROR);
+        System.exit(IO_ERROR_EXIT_CODE);
+    }
+}